@@ -0,0 +1,224 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.flowpowered.math.vector.Vector2i;
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProvider;
+import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraft.world.chunk.ChunkPrimer;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.util.weighted.SeededVariableAmount;
+import org.spongepowered.api.world.biome.BiomeGenerationSettings;
+import org.spongepowered.api.world.biome.BiomeType;
+import org.spongepowered.api.world.biome.GroundCoverLayer;
+import org.spongepowered.api.world.extent.ImmutableBiomeArea;
+import org.spongepowered.api.world.extent.MutableBiomeArea;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.gen.BiomeGenerator;
+import org.spongepowered.api.world.gen.GenerationPopulator;
+import org.spongepowered.common.world.biome.SpongeBiomeGenerationSettings;
+import org.spongepowered.lwts.runner.LaunchWrapperTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@RunWith(LaunchWrapperTestRunner.class)
+public class SpongeChunkProviderGenerationTest {
+
+    private static final long SEED = 8675309L;
+    private static final int RADIUS = 4;
+    private static final int SEA_LEVEL = 63;
+
+    @BeforeClass
+    public static void bootstrap() {
+        Bootstrap.register();
+    }
+
+    @After
+    public void stopWorker() {
+        ChunkGenerationPipeline.onServerStopping();
+    }
+
+    @Test
+    public void testCallerAndPipelineTerrainAreEqual() throws Exception {
+        final SpongeChunkProvider provider = createProvider();
+        final ChunkGenerationPipeline<SpongeChunkProvider.GeneratedTerrain> pipeline = new ChunkGenerationPipeline<>(
+                new ProviderSource(provider), (RADIUS * 2 + 1) * (RADIUS * 2 + 1), 20);
+
+        // Queue in a different order than the caller generates in to catch state leaking between chunks
+        ChunkGenerationPipeline.onTickStart();
+        for (int x = RADIUS; x >= -RADIUS; x--) {
+            for (int z = -RADIUS; z <= RADIUS; z++) {
+                pipeline.queue(x, z);
+            }
+        }
+        ChunkGenerationPipeline.onTickEnd();
+        final long deadline = System.currentTimeMillis() + 30000;
+        while (pipeline.getQueuedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        ChunkGenerationPipeline.onTickStart();
+        assertEquals(0, pipeline.getQueuedCount());
+
+        for (int x = -RADIUS; x <= RADIUS; x++) {
+            for (int z = -RADIUS; z <= RADIUS; z++) {
+                final SpongeChunkProvider.GeneratedTerrain generated = pipeline.take(x, z);
+                assertNotNull(generated);
+                final SpongeChunkProvider.GeneratedTerrain expected = provider.generateTerrain(x, z);
+                assertArrayEquals(expected.biomes, generated.biomes);
+                assertPrimersEqual(expected.primer, generated.primer);
+            }
+        }
+    }
+
+    private static SpongeChunkProvider createProvider() throws ReflectiveOperationException {
+        final World world = mock(World.class);
+        final Field provider = World.class.getDeclaredField("provider");
+        provider.setAccessible(true);
+        provider.set(world, mock(WorldProvider.class));
+        when(world.getSeed()).thenReturn(SEED);
+        when(world.getSeaLevel()).thenReturn(SEA_LEVEL);
+
+        final SpongeChunkProvider chunkProvider = new SpongeChunkProvider(world, new NoiseTerrainGenerator(), new StripeBiomeGenerator());
+        // Set the ground cover up front, initializing the biome populators needs a real world
+        final Map<BiomeType, BiomeGenerationSettings> settings = new HashMap<>();
+        for (BiomeType biome : StripeBiomeGenerator.BIOMES) {
+            final BiomeGenerationSettings biomeSettings = new SpongeBiomeGenerationSettings();
+            biomeSettings.getGroundCoverLayers().add(new GroundCoverLayer((BlockState) Blocks.grass.getDefaultState(), SeededVariableAmount.fixed(1)));
+            biomeSettings.getGroundCoverLayers().add(new GroundCoverLayer((BlockState) Blocks.dirt.getDefaultState(),
+                    WorldGenConstants.GROUND_COVER_DEPTH));
+            settings.put(biome, biomeSettings);
+        }
+        chunkProvider.setBiomeOverrides(settings);
+        return chunkProvider;
+    }
+
+    private static void assertPrimersEqual(ChunkPrimer expected, ChunkPrimer actual) {
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 256; y++) {
+                for (int z = 0; z < 16; z++) {
+                    assertSame(expected.getBlockState(x, y, z), actual.getBlockState(x, y, z));
+                }
+            }
+        }
+    }
+
+    private static final class ProviderSource implements ChunkGenerationPipeline.Source<SpongeChunkProvider.GeneratedTerrain> {
+
+        private final SpongeChunkProvider provider;
+
+        ProviderSource(SpongeChunkProvider provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public SpongeChunkProvider.GeneratedTerrain generate(int chunkX, int chunkZ) {
+            return this.provider.generateTerrain(chunkX, chunkZ);
+        }
+
+        @Override
+        public boolean needsGeneration(int chunkX, int chunkZ) {
+            return true;
+        }
+
+        @Override
+        public boolean isSaved(int chunkX, int chunkZ) {
+            return false;
+        }
+
+        @Override
+        public void scheduleLookAhead(ChunkGenerationPipeline<SpongeChunkProvider.GeneratedTerrain> pipeline) {
+        }
+
+    }
+
+    /**
+     * Like the vanilla generators, keeps its scratch buffers and random in
+     * the instance and reuses them for every chunk.
+     */
+    private static final class NoiseTerrainGenerator implements GenerationPopulator {
+
+        private final Random rand = new Random();
+        private final int[] heights = new int[256];
+
+        @Override
+        public void populate(org.spongepowered.api.world.World world, MutableBlockVolume buffer, ImmutableBiomeArea biomes) {
+            final Vector3i min = buffer.getBlockMin();
+            this.rand.setSeed(min.getX() * 341873128712L + min.getZ() * 132897987541L ^ SEED);
+            for (int i = 0; i < this.heights.length; i++) {
+                this.heights[i] = SEA_LEVEL - 8 + this.rand.nextInt(16);
+            }
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    final int height = this.heights[x * 16 + z];
+                    for (int y = 0; y <= Math.max(height, SEA_LEVEL); y++) {
+                        final BlockState block = (BlockState) (y <= height ? Blocks.stone : Blocks.water).getDefaultState();
+                        buffer.setBlock(min.getX() + x, y, min.getZ() + z, block);
+                    }
+                }
+            }
+        }
+
+    }
+
+    private static final class StripeBiomeGenerator implements BiomeGenerator {
+
+        static final BiomeType[] BIOMES = {
+                (BiomeType) BiomeGenBase.plains,
+                (BiomeType) BiomeGenBase.desert,
+                (BiomeType) BiomeGenBase.forest
+        };
+
+        @Override
+        public void generateBiomes(MutableBiomeArea buffer) {
+            final Vector2i min = buffer.getBiomeMin();
+            final Vector2i max = buffer.getBiomeMax();
+            for (int x = min.getX(); x <= max.getX(); x++) {
+                for (int z = min.getY(); z <= max.getY(); z++) {
+                    buffer.setBiome(x, z, BIOMES[Math.floorMod(x / 5 + z / 7, BIOMES.length)]);
+                }
+            }
+        }
+
+    }
+
+}
@@ -29,6 +29,8 @@
 import static co.aikar.timings.TimingsManager.TIMINGS_TICK;
 import static co.aikar.timings.TimingsManager.TIMING_MAP;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 public class FullServerTickHandler extends TimingHandler {
 
     private static final TimingIdentifier IDENTITY = new TimingIdentifier("Minecraft", "Full Server Tick", null, false);
@@ -50,7 +52,11 @@ public TimingHandler startTiming() {
         } else if (TimingsManager.needsRecheckEnabled) {
             TimingsManager.recheckEnabled();
         }
+        // The full server tick itself is always timed
+        TimingsManager.sampledTick = true;
         super.startTiming();
+        TimingsManager.sampledTick = TimingsManager.sampleInterval <= 1
+                || ThreadLocalRandom.current().nextInt(TimingsManager.sampleInterval) == 0;
         return this;
     }
 
@@ -79,12 +85,14 @@ public void stopTiming() {
 
         long start = System.nanoTime();
         TimingsManager.tick();
-        long diff = System.nanoTime() - start;
-        CURRENT = TIMINGS_TICK;
-        TIMINGS_TICK.addDiff(diff);
-        // addDiff for TIMINGS_TICK incremented this, bring it back down to 1
-        // per tick.
-        this.record.curTickCount--;
+        if (TimingsManager.sampledTick) {
+            long diff = System.nanoTime() - start;
+            CURRENT = TIMINGS_TICK;
+            TIMINGS_TICK.addDiff(diff);
+            // addDiff for TIMINGS_TICK incremented this, bring it back down to 1
+            // per tick.
+            this.record.curTickCount--;
+        }
         this.minuteData.curTickTotal = this.record.curTickTotal;
         this.minuteData.curTickCount = 1;
         boolean violated = isViolated();
@@ -58,6 +58,20 @@ public void init() {
         setTimingsEnabled(this.moduleEnabled && config.isEnabled());
         setHistoryInterval(config.getHistoryInterval());
         setHistoryLength(config.getHistoryLength());
+        setSampleInterval(config.getSampleInterval());
+        if (config.getExportInterval() > 0) {
+            // Keeps a rolling set of local reports
+            SpongeImpl.getGame().getScheduler().createTaskBuilder()
+                    .name("Sponge Timings Export")
+                    .delay(config.getExportInterval(), TimeUnit.MINUTES)
+                    .interval(config.getExportInterval(), TimeUnit.MINUTES)
+                    .execute(() -> {
+                        if (this.timingsEnabled) {
+                            TimingsExport.reportTimings(SpongeImpl.getGame().getServer().getConsole(), true);
+                        }
+                    })
+                    .submit(SpongeImpl.getPlugin());
+        }
 
         SpongeImpl.getLogger().debug("Sponge Timings: " + this.timingsEnabled +
                                     " - Verbose: " + this.verboseEnabled +
@@ -164,6 +178,25 @@ public void setHistoryLength(int length) {
         TimingsManager.HISTORY.addAll(oldQueue);
     }
 
+    public int getSampleInterval() {
+        return TimingsManager.sampleInterval;
+    }
+
+    /**
+     * Sets in how many ticks one tick is timed. The data of the sampled
+     * ticks is scaled up accordingly.
+     *
+     * @param interval The sample interval, 1 to time every tick
+     */
+    public void setSampleInterval(int interval) {
+        interval = Math.max(1, interval);
+        if (interval != TimingsManager.sampleInterval) {
+            TimingsManager.sampleInterval = interval;
+            // Data scaled with different intervals can't be mixed
+            reset();
+        }
+    }
+
     @Override
     public void reset() {
         TimingsManager.reset();
@@ -69,11 +69,24 @@ void add(long diff) {
     }
 
     void processTick(boolean violated) {
-        this.totalTime += this.curTickTotal;
-        this.count += this.curTickCount;
+        processTick(violated, 1);
+    }
+
+    /**
+     * Adds the data of the current tick, scaled up to estimate the ticks
+     * that weren't sampled.
+     *
+     * @param violated Whether the tick took too long
+     * @param scale The amount of ticks the current tick stands for
+     */
+    void processTick(boolean violated, int scale) {
+        final long tickTotal = (long) this.curTickTotal * scale;
+        final int tickCount = this.curTickCount * scale;
+        this.totalTime += tickTotal;
+        this.count += tickCount;
         if (violated) {
-            this.lagTotalTime += this.curTickTotal;
-            this.lagCount += this.curTickCount;
+            this.lagTotalTime += tickTotal;
+            this.lagCount += tickCount;
         }
         this.curTickTotal = 0;
         this.curTickCount = 0;
@@ -76,9 +76,12 @@ void processTick(boolean violated) {
             return;
         }
 
-        this.record.processTick(violated);
+        // Only the full server tick is timed on every tick, everything else
+        // is scaled up to make up for the ticks that weren't sampled
+        final int scale = TimingsManager.sampleInterval;
+        this.record.processTick(violated, this == TimingsManager.FULL_SERVER_TICK ? 1 : scale);
         for (TimingData handler : this.children.valueCollection()) {
-            handler.processTick(violated);
+            handler.processTick(violated, scale);
         }
     }
 
@@ -98,7 +101,7 @@ public void stopTimingIfSync() {
 
     @Override
     public TimingHandler startTiming() {
-        if (this.enabled && ++this.timingDepth == 1) {
+        if (this.enabled && TimingsManager.sampledTick && ++this.timingDepth == 1) {
             this.start = System.nanoTime();
             this.parent = TimingsManager.CURRENT;
             TimingsManager.CURRENT = this;
@@ -108,7 +111,8 @@ public TimingHandler startTiming() {
 
     @Override
     public void stopTiming() {
-        if (this.enabled && --this.timingDepth == 0 && this.start != 0) {
+        // Timings started outside of a sampled tick never increased the depth
+        if (this.enabled && this.timingDepth > 0 && --this.timingDepth == 0 && this.start != 0) {
             if (!MinecraftServer.getServer().isCallingFromMinecraftThread()) {
                 SpongeImpl.getLogger().fatal("stopTiming called async for " + this.name);
                 new Throwable().printStackTrace();
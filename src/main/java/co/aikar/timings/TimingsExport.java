@@ -29,10 +29,13 @@
 import co.aikar.util.JSONUtil;
 import co.aikar.util.JSONUtil.JsonObjectBuilder;
 import com.google.common.base.Joiner;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import net.minecraft.block.Block;
 import net.minecraft.server.MinecraftServer;
 import ninja.leaping.configurate.ConfigurationNode;
@@ -45,17 +48,33 @@
 import org.spongepowered.api.text.action.TextActions;
 import org.spongepowered.api.text.format.TextColors;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig.TimingsCategory;
+import org.spongepowered.common.data.ImmutableDataCachingUtil;
 import org.spongepowered.common.entity.SpongeEntityType;
+import org.spongepowered.common.network.PacketBatcher;
+import org.spongepowered.common.scheduler.AsyncTaskExecutor;
+import org.spongepowered.common.scheduler.SpongeScheduler;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.zip.GZIPOutputStream;
@@ -66,15 +85,23 @@ class TimingsExport extends Thread {
     private static final Joiner RUNTIME_FLAG_JOINER = Joiner.on(" ");
     private static final Joiner CONFIG_PATH_JOINER = Joiner.on(".");
 
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final String REPORT_PREFIX = "timings-";
+    private static final String REPORT_SUFFIX = ".json.gz";
+    private static final String HTML_SUFFIX = ".html";
+    private static final String HTML_DATA_MARKER = "@TIMINGS_DATA@";
+
     private final CommandSource sender;
     private final JsonObject out;
     private final TimingHistory[] history;
+    private final boolean local;
 
-    TimingsExport(CommandSource sender, JsonObject out, TimingHistory[] history) {
-        super("Timings paste thread");
+    TimingsExport(CommandSource sender, JsonObject out, TimingHistory[] history, boolean local) {
+        super(local ? "Timings export thread" : "Timings paste thread");
         this.sender = sender;
         this.out = out;
         this.history = history;
+        this.local = local;
     }
 
     private static String getServerName() {
@@ -82,18 +109,30 @@ private static String getServerName() {
     }
 
     /**
-     * Builds an XML report of the timings to be uploaded for parsing.
+     * Builds a report of the timings and exports it as configured.
      *
      * @param sender Who to report to
      */
     static void reportTimings(CommandSource sender) {
+        reportTimings(sender, SpongeImpl.getGlobalConfig().getConfig().getTimings().isLocalExport());
+    }
+
+    /**
+     * Builds a report of the timings to be uploaded for parsing, or to be
+     * saved to the export directory.
+     *
+     * @param sender Who to report to
+     * @param local Whether to save the report locally
+     */
+    static void reportTimings(CommandSource sender, boolean local) {
         JsonObjectBuilder builder = JSONUtil.objectBuilder()
                 // Get some basic system details about the server
                 .add("version", SpongeImpl.getGame().getPlatform().getImplementation().getVersion())
                 .add("maxplayers", SpongeImpl.getGame().getServer().getMaxPlayers())
                 .add("start", TimingsManager.timingStart / 1000)
                 .add("end", System.currentTimeMillis() / 1000)
-                .add("sampletime", (System.currentTimeMillis() - TimingsManager.timingStart) / 1000);
+                .add("sampletime", (System.currentTimeMillis() - TimingsManager.timingStart) / 1000)
+                .add("sampleinterval", TimingsManager.sampleInterval);
         if (!TimingsManager.privacy) {
             builder.add("server", getServerName())
                     .add("motd", SpongeImpl.getGame().getServer().getMotd().toPlain())
@@ -171,12 +210,42 @@ static void reportTimings(CommandSource sender) {
             ).build();
         }));
 
+        // Information about the asynchronous scheduler
+
+        AsyncTaskExecutor asyncExecutor = SpongeScheduler.getInstance().getAsyncTaskExecutor();
+        builder.add("scheduler", JSONUtil.objectBuilder()
+                .add("queued", asyncExecutor.getQueuedTasks())
+                .add("active", asyncExecutor.getActiveTasks())
+                .add("threads", asyncExecutor.getThreadCount())
+                .add("plugins", JSONUtil.mapArrayToObject(asyncExecutor.getPluginTasks().entrySet(), (entry) -> {
+                    AsyncTaskExecutor.PluginTasks tasks = entry.getValue();
+                    // Latencies are exported in microseconds
+                    return JSONUtil.singleObjectPair(entry.getKey(), JSONUtil.arrayOf(tasks.getRunning(), tasks.getWaiting(),
+                            tasks.getCompleted(), tasks.getAverageLatency() / 1000, tasks.getMaxLatency() / 1000));
+                })));
+
+        // Hit rates of the immutable data caches
+
+        CacheStats manipulatorStats = ImmutableDataCachingUtil.getManipulatorStats();
+        CacheStats valueStats = ImmutableDataCachingUtil.getValueStats();
+        builder.add("immutabledatacache", JSONUtil.objectBuilder()
+                .add("manipulators", JSONUtil.arrayOf(manipulatorStats.hitCount(), manipulatorStats.missCount(), manipulatorStats.evictionCount()))
+                .add("values", JSONUtil.arrayOf(valueStats.hitCount(), valueStats.missCount(), valueStats.evictionCount())));
+
+        // Outgoing packets and channel flushes, only counted while packet batching is enabled
+
+        builder.add("packetbatching", JSONUtil.objectBuilder()
+                .add("enabled", PacketBatcher.isEnabled())
+                .add("ticks", PacketBatcher.getTicks())
+                .add("total", JSONUtil.arrayOf(PacketBatcher.getTotalPackets(), PacketBatcher.getTotalFlushes()))
+                .add("lasttick", JSONUtil.arrayOf(PacketBatcher.getLastTickPackets(), PacketBatcher.getLastTickFlushes())));
+
         // Information on the users Config
 
         builder.add("config", JSONUtil.objectBuilder()
                 .add("sponge", serializeConfigNode(SpongeImpl.getGlobalConfig().getRootNode())));
 
-        new TimingsExport(sender, builder.build(), history).start();
+        new TimingsExport(sender, builder.build(), history, local).start();
     }
 
     static long getCost() {
@@ -252,8 +321,91 @@ public synchronized void start() {
     public void run() {
         this.sender.sendMessage(Text.of(TextColors.GREEN, "Preparing Timings Report..."));
 
-        this.out.add("data", JSONUtil.mapArray(this.history, TimingHistory::export));
+        if (this.local) {
+            saveReport();
+        } else {
+            uploadReport();
+        }
+    }
 
+    /**
+     * Writes the report, exporting the history frames one by one instead of
+     * building the complete report in memory first.
+     *
+     * @param writer The writer to write the report to
+     * @throws IOException If writing fails
+     */
+    private void writeReport(Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        for (Entry<String, JsonElement> entry : this.out.entrySet()) {
+            json.name(entry.getKey());
+            JSONUtil.write(entry.getValue(), json);
+        }
+        json.name("data");
+        json.beginArray();
+        for (TimingHistory timingHistory : this.history) {
+            JSONUtil.write(timingHistory.export(), json);
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    private void saveReport() {
+        TimingsCategory config = SpongeImpl.getGlobalConfig().getConfig().getTimings();
+        Path directory = SpongeImpl.getGameDir().resolve(config.getExportDirectory());
+        String name = REPORT_PREFIX + FILE_NAME_FORMAT.format(LocalDateTime.now());
+        Path report = directory.resolve(name + REPORT_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(report)), StandardCharsets.UTF_8)) {
+                writeReport(writer);
+            }
+            if (config.isHtmlExport()) {
+                saveHtmlReport(directory.resolve(name + HTML_SUFFIX));
+            }
+            deleteOldReports(directory, config.getExportKeep());
+        } catch (IOException e) {
+            this.sender.sendMessage(Text.of(TextColors.RED, "Error saving timings, check your logs for more information"));
+            SpongeImpl.getLogger().error("Could not save timings to {}", report, e);
+            return;
+        }
+        this.sender.sendMessage(Text.of(TextColors.GREEN, "Timings Report saved to ", report.toString()));
+        if (!(this.sender instanceof ConsoleSource)) {
+            SpongeImpl.getLogger().info("Timings Report saved to " + report);
+        }
+    }
+
+    private void saveHtmlReport(Path file) throws IOException {
+        String template;
+        try (InputStream in = TimingsExport.class.getResourceAsStream("timings-viewer.html")) {
+            template = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        }
+        int marker = template.indexOf(HTML_DATA_MARKER);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(template, 0, marker);
+            // The report is written HTML safe, so it can't close the script element
+            writeReport(writer);
+            writer.write(template, marker + HTML_DATA_MARKER.length(), template.length() - marker - HTML_DATA_MARKER.length());
+        }
+    }
+
+    private static void deleteOldReports(Path directory, int keep) throws IOException {
+        List<Path> reports = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, REPORT_PREFIX + "*" + REPORT_SUFFIX)) {
+            stream.forEach(reports::add);
+        }
+        // The timestamps in the names sort chronologically
+        Collections.sort(reports);
+        for (int i = 0; i < reports.size() - Math.max(keep, 1); i++) {
+            String fileName = reports.get(i).getFileName().toString();
+            Files.deleteIfExists(reports.get(i));
+            Files.deleteIfExists(directory.resolve(fileName.substring(0, fileName.length() - REPORT_SUFFIX.length()) + HTML_SUFFIX));
+        }
+    }
+
+    private void uploadReport() {
         String response = null;
         try {
             HttpURLConnection con = (HttpURLConnection) new URL("http://timings.aikar.co/post").openConnection();
@@ -269,8 +421,9 @@ public void run() {
                 }
             };
 
-            request.write(JSONUtil.toString(this.out).getBytes("UTF-8"));
-            request.close();
+            try (Writer writer = new OutputStreamWriter(request, StandardCharsets.UTF_8)) {
+                writeReport(writer);
+            }
 
             response = getResponse(con);
 
@@ -57,6 +57,10 @@ public final class TimingsManager {
     static long historyStart = 0;
     static boolean needsFullReset = false;
     static boolean needsRecheckEnabled = false;
+    // Only 1 in sampleInterval ticks is timed, chosen at random so the
+    // samples don't line up with periodic work
+    static int sampleInterval = 1;
+    static boolean sampledTick = true;
 
     private TimingsManager() {
     }
@@ -31,6 +31,7 @@
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 import java.util.List;
 import java.util.Map;
@@ -117,6 +118,16 @@ public static <E> JsonObject mapArrayToObject(Iterable<E> iterable, Function<E,
         return builder.build();
     }
 
+    /**
+     * Writes the element to the writer.
+     *
+     * @param element The element to write
+     * @param writer The writer to write to
+     */
+    public static void write(JsonElement element, JsonWriter writer) {
+        gson.toJson(element, writer);
+    }
+
     public static String toString(JsonElement element) {
         return gson.toJson(element);
     }
@@ -131,6 +131,10 @@ public static boolean postEvent(Event event) {
         return getGame().getEventManager().post(event);
     }
 
+    public static boolean hasListener(Class<? extends Event> eventClass) {
+        return ((SpongeEventManager) getGame().getEventManager()).hasListener(eventClass);
+    }
+
     public static Logger getLogger() {
         return logger;
     }
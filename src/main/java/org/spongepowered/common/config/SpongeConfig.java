@@ -261,6 +261,9 @@ public static class GlobalConfig extends ConfigBase {
         @Setting(value = "optimizations")
         private OptimizationCategory optimizations = new OptimizationCategory();
 
+        @Setting(value = "scheduler", comment = "Configuration options related to the plugin task scheduler")
+        private SchedulerCategory scheduler = new SchedulerCategory();
+
         public BungeeCordCategory getBungeeCord() {
             return this.bungeeCord;
         }
@@ -296,6 +299,10 @@ public OptimizationCategory getOptimizations() {
             return this.optimizations;
         }
 
+        public SchedulerCategory getScheduler() {
+            return this.scheduler;
+        }
+
         public Predicate<InetAddress> getIpSet(String name) {
             return this.ipSets.containsKey(name) ? Predicates.and(this.ipSets.get(name)) : null;
         }
@@ -753,6 +760,27 @@ public static class OptimizationCategory extends Category {
         @Setting(value = "chunk-map-caching", comment = "Caches chunks internally for faster returns when querying at various positions")
         private boolean useCachedChunkMap = true;
 
+        @Setting(value = "batch-packet-flushing", comment = "Flushes outgoing packets of a player connection once at the end of each tick "
+                + "instead of after every packet. Reduces system calls under load, keep alive and disconnect packets are still sent immediately")
+        private boolean batchPacketFlushing = false;
+
+        @Setting(value = "async-chunk-generation", comment = "Generates the terrain of chunks players are moving towards on a separate thread "
+                + "while the server waits for the next tick. Population still happens on the main thread. Generation populators of plugins "
+                + "must not access the world outside of their buffers")
+        private boolean asyncChunkGeneration = false;
+
+        @Setting(value = "async-chunk-generation-look-ahead", comment = "How many chunks beyond the view distance the terrain is generated "
+                + "ahead of a moving player")
+        private int asyncChunkGenerationLookAhead = 2;
+
+        @Setting(value = "async-chunk-generation-queue-size", comment = "The maximum amount of chunks per world that are queued or "
+                + "generated ahead of time")
+        private int asyncChunkGenerationQueueSize = 256;
+
+        @Setting(value = "chunk-pre-generate-throughput-mode", comment = "While no players are online, chunk pre-generation ignores its chunks "
+                + "per tick limit, uses the whole tick and fills the async chunk generation queue ahead of itself")
+        private boolean chunkPreGenerateThroughputMode = false;
+
         public boolean useBlockStateLookupPatch() {
             return this.blockStateLookup;
         }
@@ -764,6 +792,73 @@ public boolean useIgnoreUloadedChunkLightingPatch() {
         public boolean isUseCachedChunkMap() {
             return this.useCachedChunkMap;
         }
+
+        public boolean useBatchedPacketFlushing() {
+            return this.batchPacketFlushing;
+        }
+
+        public boolean useAsyncChunkGeneration() {
+            return this.asyncChunkGeneration;
+        }
+
+        public int getAsyncChunkGenerationLookAhead() {
+            return this.asyncChunkGenerationLookAhead;
+        }
+
+        public int getAsyncChunkGenerationQueueSize() {
+            return Math.max(1, this.asyncChunkGenerationQueueSize);
+        }
+
+        public boolean useChunkPreGenerateThroughputMode() {
+            return this.chunkPreGenerateThroughputMode;
+        }
+    }
+
+    @ConfigSerializable
+    public static class SchedulerCategory extends Category {
+
+        @Setting(value = "async-max-threads", comment = "The maximum amount of threads running asynchronous tasks. Set to 0 for no limit")
+        private int asyncMaxThreads = 0;
+
+        @Setting(value = "async-queue-size", comment = "The maximum amount of asynchronous tasks waiting for a free thread, only used if the "
+                + "threads are limited. Set to 0 for no limit")
+        private int asyncQueueSize = 0;
+
+        @Setting(value = "async-rejection-policy", comment = "What to do with an asynchronous task if the queue is full. 'defer' keeps the task "
+                + "waiting until a thread is free, 'abort' discards the task and logs an error")
+        private String asyncRejectionPolicy = "defer";
+
+        @Setting(value = "async-plugin-concurrency-limit", comment = "The maximum amount of asynchronous tasks of a single plugin running at "
+                + "the same time. Further tasks wait until one finishes. Set to 0 for no limit")
+        private int asyncPluginConcurrencyLimit = 0;
+
+        @Setting(value = "async-plugin-concurrency-overrides", comment = "Per-plugin overrides of the concurrency limit, by plugin id")
+        private Map<String, Integer> asyncPluginConcurrencyOverrides = new HashMap<>();
+
+        @Setting(value = "async-virtual-threads", comment = "Run every asynchronous task on its own virtual thread instead of a thread pool. "
+                + "Requires a Java runtime with virtual thread support, thread limits do not apply")
+        private boolean asyncVirtualThreads = false;
+
+        public int getAsyncMaxThreads() {
+            return this.asyncMaxThreads;
+        }
+
+        public int getAsyncQueueSize() {
+            return this.asyncQueueSize;
+        }
+
+        public String getAsyncRejectionPolicy() {
+            return this.asyncRejectionPolicy;
+        }
+
+        public int getAsyncPluginConcurrencyLimit(String pluginId) {
+            Integer limit = this.asyncPluginConcurrencyOverrides.get(pluginId);
+            return limit != null ? limit : this.asyncPluginConcurrencyLimit;
+        }
+
+        public boolean useAsyncVirtualThreads() {
+            return this.asyncVirtualThreads;
+        }
     }
 
     @ConfigSerializable
@@ -1109,6 +1204,26 @@ public static class TimingsCategory extends Category {
         @Setting("history-length")
         private int historyLength = 3600;
 
+        @Setting(value = "sample-interval", comment = "Only time 1 in this many ticks and scale the results, to keep timings cheap enough\n"
+                + "to leave enabled. 1 times every tick.")
+        private int sampleInterval = 1;
+
+        @Setting(value = "export-mode", comment = "Where timings reports are exported to, 'upload' to upload them to the timings viewer\n"
+                + "or 'local' to save them to the export directory.")
+        private String exportMode = "upload";
+
+        @Setting(value = "export-directory", comment = "The directory local timings reports are saved to, relative to the game directory.")
+        private String exportDirectory = "timings";
+
+        @Setting(value = "export-html", comment = "Save a self-contained HTML viewer next to each local timings report.")
+        private boolean exportHtml = false;
+
+        @Setting(value = "export-interval", comment = "The interval in minutes in which timings reports are saved locally, 0 to disable.")
+        private int exportInterval = 0;
+
+        @Setting(value = "export-keep", comment = "The amount of local timings reports to keep, older reports are deleted.")
+        private int exportKeep = 10;
+
         public boolean isVerbose() {
             return this.verbose;
         }
@@ -1141,6 +1256,30 @@ public void setHistoryLength(int historyLength) {
             this.historyLength = historyLength;
         }
 
+        public int getSampleInterval() {
+            return this.sampleInterval;
+        }
+
+        public boolean isLocalExport() {
+            return "local".equalsIgnoreCase(this.exportMode);
+        }
+
+        public String getExportDirectory() {
+            return this.exportDirectory;
+        }
+
+        public boolean isHtmlExport() {
+            return this.exportHtml;
+        }
+
+        public int getExportInterval() {
+            return this.exportInterval;
+        }
+
+        public int getExportKeep() {
+            return this.exportKeep;
+        }
+
     }
 
     @ConfigSerializable
@@ -57,6 +57,20 @@
 
     boolean supports(EntityType entityType);
 
+    /**
+     * Checks whether instances of the given holder class may be supported
+     * by this processor. Returning {@code false} lets the holder class skip
+     * this processor entirely, so this may only do so if
+     * {@link #supports(DataHolder)} is {@code false} for every instance of
+     * the class.
+     *
+     * @param holderClass The class of the data holder
+     * @return False if no instance of the class is supported
+     */
+    default boolean isApplicableTo(Class<?> holderClass) {
+        return true;
+    }
+
     /**
      * Attempts to get the given {@link DataManipulator} of type {@code T} if
      * and only if the manipulator's required data exists from the
@@ -28,7 +28,9 @@
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import org.spongepowered.api.CatalogType;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableMap;
 import org.spongepowered.api.data.key.Key;
 import org.spongepowered.api.data.manipulator.ImmutableDataManipulator;
 import org.spongepowered.api.data.value.BaseValue;
@@ -36,9 +38,18 @@
 import org.spongepowered.common.SpongeImpl;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class ImmutableDataCachingUtil {
 
@@ -48,16 +59,32 @@ private ImmutableDataCachingUtil() {}
     public static final int MANIPULATOR_CACHE_LIMIT = 100000;
     public static final int VALUE_CACHE_LIMIT = 100000;
 
-    private static final Cache<String, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder()
+    // Single int arguments in [0, SMALL_INT_LIMIT) are stored in a table per manipulator class
+    private static final int SMALL_INT_LIMIT = 256;
+
+    private static final Cache<ManipulatorKey, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder()
         .maximumSize(MANIPULATOR_CACHE_LIMIT)
         .concurrencyLevel(4)
+        .recordStats()
         .build();
 
-    private static final Cache<String, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder()
+    private static final Cache<ValueKey, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder()
         .concurrencyLevel(4)
         .maximumSize(VALUE_CACHE_LIMIT)
+        .recordStats()
         .build();
 
+    private static final ClassValue<SingleArgTable> singleArgTables = new ClassValue<SingleArgTable>() {
+
+        @Override
+        protected SingleArgTable computeValue(Class<?> type) {
+            return new SingleArgTable();
+        }
+    };
+
+    private static final LongAdder tableHits = new LongAdder();
+    private static final LongAdder tableMisses = new LongAdder();
+
     /**
      * Retrieves a basic manipulator from {@link Cache}. If the {@link Cache}
      * does not have the desired {@link ImmutableDataManipulator} with relative
@@ -75,29 +102,45 @@ private ImmutableDataCachingUtil() {}
      */
     @SuppressWarnings("unchecked")
     public static <T extends ImmutableDataManipulator<?, ?>> T getManipulator(final Class<T> immutableClass, final Object... args) {
-        final String key = getKey(immutableClass, args);
+        if (args != null && args.length == 1) {
+            final AtomicReferenceArray<Object> table = singleArgTables.get(immutableClass).getTable(args[0]);
+            if (table != null) {
+                final int index = SingleArgTable.getIndex(args[0]);
+                final Object cached = table.get(index);
+                if (cached != null) {
+                    tableHits.increment();
+                    return (T) cached;
+                }
+                tableMisses.increment();
+                final T manipulator = createManipulator(immutableClass, args);
+                return table.compareAndSet(index, null, manipulator) ? manipulator : (T) table.get(index);
+            }
+        }
+        final ManipulatorKey key = new ManipulatorKey(immutableClass, args);
         // We can't really use the generic typing here because it's complicated...
         try {
-            // Let's get the key
-            return (T) ImmutableDataCachingUtil.manipulatorCache.get(key, (Callable<ImmutableDataManipulator<?, ?>>) () -> {
-                    try {
-                        return createUnsafeInstance(immutableClass, args);
-                    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                        SpongeImpl.getLogger().error("Could not construct an ImmutableDataManipulator: " + immutableClass.getCanonicalName() + " with the args: "
-                                                     + Arrays.toString(args), e);
-                    }
-                    throw new UnsupportedOperationException("Could not construct the ImmutableDataManipulator: " + immutableClass.getName() + " with the args: "
-                                                            + Arrays.toString(args));
-            });
+            return (T) ImmutableDataCachingUtil.manipulatorCache.get(key,
+                    (Callable<ImmutableDataManipulator<?, ?>>) () -> createManipulator(immutableClass, args));
         } catch (Throwable e) {
             throw new UnsupportedOperationException("Could not construct the ImmutableDataManipulator: " + immutableClass.getName(), e);
         }
     }
 
+    private static <T extends ImmutableDataManipulator<?, ?>> T createManipulator(final Class<T> immutableClass, final Object... args) {
+        try {
+            return createUnsafeInstance(immutableClass, args);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            SpongeImpl.getLogger().error("Could not construct an ImmutableDataManipulator: " + immutableClass.getCanonicalName() + " with the args: "
+                                         + Arrays.toString(args), e);
+        }
+        throw new UnsupportedOperationException("Could not construct the ImmutableDataManipulator: " + immutableClass.getName() + " with the args: "
+                                                + Arrays.toString(args));
+    }
+
     @SuppressWarnings("unchecked")
     public static <E, V extends ImmutableValue<?>, T extends ImmutableValue<E>> T getValue(final Class<V> valueClass,
             final Key<? extends BaseValue<E>> usedKey, final E defaultArg, final E arg, final Object... extraArgs) {
-        final String key = getKey(valueClass, usedKey.getQuery().asString('.'), arg.getClass(), arg);
+        final ValueKey key = new ValueKey(valueClass, usedKey, arg);
         try {
             return (T) ImmutableDataCachingUtil.valueCache.get(key, (Callable<ImmutableValue<?>>) () -> {
                     try {
@@ -116,15 +159,159 @@ public static <E, V extends ImmutableValue<?>, T extends ImmutableValue<E>> T ge
         }
     }
 
-    private static String getKey(final Class<?> immutableClass, final Object... args) {
-        final StringBuilder builder = new StringBuilder(immutableClass.getCanonicalName() + ":");
-        for (Object object : args) {
-            if (object instanceof CatalogType) {
-                builder.append("{").append(((CatalogType) object).getId()).append("}");
+    /**
+     * Gets the statistics of the manipulator caches, including the tables
+     * of manipulators with a single boolean, small int or enum argument.
+     *
+     * @return The manipulator cache statistics
+     */
+    public static CacheStats getManipulatorStats() {
+        return manipulatorCache.stats().plus(new CacheStats(tableHits.sum(), tableMisses.sum(), 0, 0, 0, 0));
+    }
+
+    /**
+     * Gets the statistics of the value cache.
+     *
+     * @return The value cache statistics
+     */
+    public static CacheStats getValueStats() {
+        return valueCache.stats();
+    }
+
+    /**
+     * Copies mutable collections so that the key doesn't change when the
+     * caller modifies the collection later on.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object snapshot(Object arg) {
+        if (arg instanceof ImmutableCollection || arg instanceof ImmutableMap) {
+            return arg;
+        } else if (arg instanceof Set) {
+            return new HashSet<>((Set) arg);
+        } else if (arg instanceof List) {
+            return new ArrayList<>((List) arg);
+        } else if (arg instanceof Map) {
+            return new HashMap<>((Map) arg);
+        }
+        return arg;
+    }
+
+    private static final class ManipulatorKey {
+
+        private final Class<?> immutableClass;
+        private final Object[] args;
+        private final int hashCode;
+
+        ManipulatorKey(Class<?> immutableClass, Object[] args) {
+            this.immutableClass = immutableClass;
+            if (args == null) {
+                this.args = null;
             } else {
-                builder.append("{").append(object.toString()).append("}");
+                this.args = new Object[args.length];
+                for (int i = 0; i < args.length; i++) {
+                    this.args[i] = snapshot(args[i]);
+                }
+            }
+            this.hashCode = 31 * immutableClass.hashCode() + Arrays.deepHashCode(this.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ManipulatorKey)) {
+                return false;
+            }
+            final ManipulatorKey other = (ManipulatorKey) obj;
+            return this.hashCode == other.hashCode
+                   && this.immutableClass == other.immutableClass
+                   && Arrays.deepEquals(this.args, other.args);
+        }
+    }
+
+    private static final class ValueKey {
+
+        private final Class<?> valueClass;
+        private final Key<?> key;
+        private final Object value;
+        private final int hashCode;
+
+        ValueKey(Class<?> valueClass, Key<?> key, Object value) {
+            this.valueClass = valueClass;
+            this.key = key;
+            this.value = snapshot(value);
+            this.hashCode = 31 * (31 * valueClass.hashCode() + key.hashCode()) + Objects.hashCode(this.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ValueKey)) {
+                return false;
+            }
+            final ValueKey other = (ValueKey) obj;
+            return this.hashCode == other.hashCode
+                   && this.valueClass == other.valueClass
+                   && this.key.equals(other.key)
+                   && Objects.deepEquals(this.value, other.value);
+        }
+    }
+
+    /**
+     * The preallocated tables of a manipulator class for a single boolean,
+     * small int or enum argument.
+     */
+    private static final class SingleArgTable {
+
+        private final AtomicReferenceArray<Object> booleans = new AtomicReferenceArray<>(2);
+        private final AtomicReferenceArray<Object> ints = new AtomicReferenceArray<>(SMALL_INT_LIMIT);
+        private volatile Class<?> enumClass;
+        private volatile AtomicReferenceArray<Object> enums;
+
+        static int getIndex(Object arg) {
+            if (arg instanceof Boolean) {
+                return (Boolean) arg ? 1 : 0;
+            } else if (arg instanceof Integer) {
+                return (Integer) arg;
+            }
+            return ((Enum<?>) arg).ordinal();
+        }
+
+        AtomicReferenceArray<Object> getTable(Object arg) {
+            if (arg instanceof Boolean) {
+                return this.booleans;
+            } else if (arg instanceof Integer) {
+                final int value = (Integer) arg;
+                return value >= 0 && value < SMALL_INT_LIMIT ? this.ints : null;
+            } else if (arg instanceof Enum) {
+                final Class<?> argClass = ((Enum<?>) arg).getDeclaringClass();
+                AtomicReferenceArray<Object> enums = this.enums;
+                if (enums == null) {
+                    synchronized (this) {
+                        if (this.enums == null) {
+                            this.enumClass = argClass;
+                            this.enums = new AtomicReferenceArray<>(argClass.getEnumConstants().length);
+                        }
+                        enums = this.enums;
+                    }
+                }
+                // Only the first enum type seen by a manipulator class has a table
+                return this.enumClass == argClass ? enums : null;
             }
+            return null;
         }
-        return builder.toString();
     }
 }
@@ -139,6 +139,20 @@
      */
     boolean supports(ValueContainer<?> container);
 
+    /**
+     * Checks whether instances of the given container class may be
+     * supported by this processor. Returning {@code false} lets the
+     * container class skip this processor entirely, so this may only do so
+     * if {@link #supports(ValueContainer)} is {@code false} for every
+     * instance of the class.
+     *
+     * @param containerClass The class of the value container
+     * @return False if no instance of the class is supported
+     */
+    default boolean isApplicableTo(Class<?> containerClass) {
+        return true;
+    }
+
     /**
      * Offers the provided {@link BaseValue} containing a value of the
      * appropriate value type of this {@link ValueProcessor} to offer
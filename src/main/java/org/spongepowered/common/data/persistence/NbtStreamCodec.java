@@ -0,0 +1,323 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.persistence;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.Lists;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataSerializable;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.MemoryDataContainer;
+import org.spongepowered.common.data.util.NbtDataUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes {@link DataView}s directly in the binary NBT format,
+ * without building an intermediate {@link net.minecraft.nbt.NBTTagCompound}.
+ *
+ * <p>The data is encoded exactly like {@link NbtTranslator} translates it,
+ * so {@link net.minecraft.nbt.CompressedStreamTools} can read what is written
+ * here and the other way around.</p>
+ */
+public final class NbtStreamCodec {
+
+    private static final int MAX_DEPTH = 512;
+
+    private NbtStreamCodec() {
+    }
+
+    /**
+     * Writes the view as an unnamed root compound.
+     *
+     * @param view The view to write
+     * @param output The output to write to
+     * @throws IOException If the output could not be written
+     */
+    public static void write(DataView view, DataOutput output) throws IOException {
+        checkNotNull(view, "view");
+        output.writeByte(NbtDataUtil.TAG_COMPOUND);
+        output.writeUTF("");
+        writeView(view, output);
+    }
+
+    /**
+     * Reads a root compound into a new container.
+     *
+     * @param input The input to read from
+     * @return The read container
+     * @throws IOException If the input could not be read or is no compound
+     */
+    public static DataContainer read(DataInput input) throws IOException {
+        if (input.readByte() != NbtDataUtil.TAG_COMPOUND) {
+            throw new IOException("Root tag must be a named compound tag");
+        }
+        input.readUTF();
+        DataContainer container = new MemoryDataContainer();
+        readCompound(input, container, 0);
+        return container;
+    }
+
+    private static void writeView(DataView view, DataOutput output) throws IOException {
+        for (Map.Entry<DataQuery, Object> entry : view.getValues(false).entrySet()) {
+            Object value = entry.getValue();
+            String key = entry.getKey().asString('.');
+            if (value instanceof Boolean) {
+                writeEntry(key + NbtTranslator.BOOLEAN_IDENTIFER, value, output);
+            } else {
+                writeEntry(key, value, output);
+            }
+        }
+        output.writeByte(NbtDataUtil.TAG_END);
+    }
+
+    private static void writeEntry(String key, Object value, DataOutput output) throws IOException {
+        byte type = getType(value);
+        output.writeByte(type);
+        output.writeUTF(key);
+        writePayload(value, type, output);
+    }
+
+    private static byte getType(Object value) {
+        checkNotNull(value);
+        if (value instanceof Boolean || value instanceof Byte) {
+            return NbtDataUtil.TAG_BYTE;
+        } else if (value instanceof Short) {
+            return NbtDataUtil.TAG_SHORT;
+        } else if (value instanceof Integer) {
+            return NbtDataUtil.TAG_INT;
+        } else if (value instanceof Long) {
+            return NbtDataUtil.TAG_LONG;
+        } else if (value instanceof Float) {
+            return NbtDataUtil.TAG_FLOAT;
+        } else if (value instanceof Double) {
+            return NbtDataUtil.TAG_DOUBLE;
+        } else if (value instanceof String) {
+            return NbtDataUtil.TAG_STRING;
+        } else if (value instanceof byte[] || value instanceof Byte[]) {
+            return NbtDataUtil.TAG_BYTE_ARRAY;
+        } else if (value instanceof int[] || value instanceof Integer[]) {
+            return NbtDataUtil.TAG_INT_ARRAY;
+        } else if (value instanceof List) {
+            return NbtDataUtil.TAG_LIST;
+        } else if (value instanceof Map || value instanceof DataSerializable || value instanceof DataView) {
+            return NbtDataUtil.TAG_COMPOUND;
+        }
+        throw new IllegalArgumentException("Unable to translate object to NBTBase: " + value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writePayload(Object value, byte type, DataOutput output) throws IOException {
+        switch (type) {
+            case NbtDataUtil.TAG_BYTE:
+                output.writeByte(value instanceof Boolean ? ((Boolean) value ? 1 : 0) : (Byte) value);
+                break;
+            case NbtDataUtil.TAG_SHORT:
+                output.writeShort((Short) value);
+                break;
+            case NbtDataUtil.TAG_INT:
+                output.writeInt((Integer) value);
+                break;
+            case NbtDataUtil.TAG_LONG:
+                output.writeLong((Long) value);
+                break;
+            case NbtDataUtil.TAG_FLOAT:
+                output.writeFloat((Float) value);
+                break;
+            case NbtDataUtil.TAG_DOUBLE:
+                output.writeDouble((Double) value);
+                break;
+            case NbtDataUtil.TAG_STRING:
+                output.writeUTF((String) value);
+                break;
+            case NbtDataUtil.TAG_BYTE_ARRAY:
+                if (value instanceof byte[]) {
+                    byte[] array = (byte[]) value;
+                    output.writeInt(array.length);
+                    output.write(array);
+                } else {
+                    Byte[] array = (Byte[]) value;
+                    output.writeInt(array.length);
+                    for (Byte data : array) {
+                        output.writeByte(data);
+                    }
+                }
+                break;
+            case NbtDataUtil.TAG_INT_ARRAY:
+                if (value instanceof int[]) {
+                    int[] array = (int[]) value;
+                    output.writeInt(array.length);
+                    for (int data : array) {
+                        output.writeInt(data);
+                    }
+                } else {
+                    Integer[] array = (Integer[]) value;
+                    output.writeInt(array.length);
+                    for (Integer data : array) {
+                        output.writeInt(data);
+                    }
+                }
+                break;
+            case NbtDataUtil.TAG_LIST:
+                writeList((List<Object>) value, output);
+                break;
+            case NbtDataUtil.TAG_COMPOUND:
+                if (value instanceof Map) {
+                    writeMap((Map<Object, Object>) value, output);
+                } else if (value instanceof DataSerializable) {
+                    writeView(((DataSerializable) value).toContainer(), output);
+                } else {
+                    writeView((DataView) value, output);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown NBT type " + type);
+        }
+    }
+
+    private static void writeList(List<Object> list, DataOutput output) throws IOException {
+        if (list.isEmpty()) {
+            output.writeByte(NbtDataUtil.TAG_END);
+            output.writeInt(0);
+            return;
+        }
+        // Like NBTTagList, elements of a different type than the first one are dropped
+        byte listType = getType(list.get(0));
+        int count = 0;
+        for (Object element : list) {
+            if (getType(element) == listType) {
+                count++;
+            }
+        }
+        output.writeByte(listType);
+        output.writeInt(count);
+        for (Object element : list) {
+            if (getType(element) == listType) {
+                writePayload(element, listType, output);
+            }
+        }
+    }
+
+    private static void writeMap(Map<Object, Object> map, DataOutput output) throws IOException {
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            if (key instanceof DataQuery) {
+                if (entry.getValue() instanceof Boolean) {
+                    writeEntry(((DataQuery) key).asString('.') + NbtTranslator.BOOLEAN_IDENTIFER, entry.getValue(), output);
+                } else {
+                    writeEntry(((DataQuery) key).asString('.'), entry.getValue(), output);
+                }
+            } else if (key instanceof String) {
+                writeEntry((String) key, entry.getValue(), output);
+            } else {
+                writeEntry(key.toString(), entry.getValue(), output);
+            }
+        }
+        output.writeByte(NbtDataUtil.TAG_END);
+    }
+
+    private static void readCompound(DataInput input, DataView view, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Tried to read NBT tag with too high complexity, depth > " + MAX_DEPTH);
+        }
+        byte type;
+        while ((type = input.readByte()) != NbtDataUtil.TAG_END) {
+            String key = input.readUTF();
+            checkArgument(!key.isEmpty());
+            switch (type) {
+                case NbtDataUtil.TAG_BYTE:
+                    byte value = input.readByte();
+                    if (key.contains(NbtTranslator.BOOLEAN_IDENTIFER)) {
+                        view.set(of(key.replace(NbtTranslator.BOOLEAN_IDENTIFER, "")), value == 1);
+                    } else {
+                        view.set(of(key), value);
+                    }
+                    break;
+                case NbtDataUtil.TAG_COMPOUND:
+                    // Read straight into the child view, like the translator does
+                    readCompound(input, view.createView(of(key)), depth + 1);
+                    break;
+                default:
+                    view.set(of(key), readPayload(input, type, depth + 1));
+                    break;
+            }
+        }
+    }
+
+    private static Object readPayload(DataInput input, byte type, int depth) throws IOException {
+        switch (type) {
+            case NbtDataUtil.TAG_BYTE:
+                return input.readByte();
+            case NbtDataUtil.TAG_SHORT:
+                return input.readShort();
+            case NbtDataUtil.TAG_INT:
+                return input.readInt();
+            case NbtDataUtil.TAG_LONG:
+                return input.readLong();
+            case NbtDataUtil.TAG_FLOAT:
+                return input.readFloat();
+            case NbtDataUtil.TAG_DOUBLE:
+                return input.readDouble();
+            case NbtDataUtil.TAG_BYTE_ARRAY:
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                return bytes;
+            case NbtDataUtil.TAG_STRING:
+                return input.readUTF();
+            case NbtDataUtil.TAG_LIST:
+                if (depth > MAX_DEPTH) {
+                    throw new IOException("Tried to read NBT tag with too high complexity, depth > " + MAX_DEPTH);
+                }
+                byte listType = input.readByte();
+                int count = input.readInt();
+                List<Object> list = Lists.newArrayListWithCapacity(count);
+                for (int i = 0; i < count; i++) {
+                    list.add(readPayload(input, listType, depth + 1));
+                }
+                return list;
+            case NbtDataUtil.TAG_COMPOUND:
+                DataContainer container = new MemoryDataContainer();
+                readCompound(input, container, depth);
+                return container;
+            case NbtDataUtil.TAG_INT_ARRAY:
+                int[] ints = new int[input.readInt()];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = input.readInt();
+                }
+                return ints;
+            default:
+                throw new IOException("Unknown NBT type " + type);
+        }
+    }
+
+}
@@ -46,6 +46,21 @@
 public final class DataProcessorDelegate<M extends DataManipulator<M, I>, I extends ImmutableDataManipulator<I, M>> implements DataProcessor<M, I> {
 
     private final ImmutableList<Tuple<DataProcessor<M, I>, Timing>> processors;
+    // The processors that may support a holder class, resolved the first time the class is seen
+    private final ClassValue<ImmutableList<Tuple<DataProcessor<M, I>, Timing>>> applicableProcessors =
+            new ClassValue<ImmutableList<Tuple<DataProcessor<M, I>, Timing>>>() {
+
+                @Override
+                protected ImmutableList<Tuple<DataProcessor<M, I>, Timing>> computeValue(Class<?> holderClass) {
+                    ImmutableList.Builder<Tuple<DataProcessor<M, I>, Timing>> builder = ImmutableList.builder();
+                    for (Tuple<DataProcessor<M, I>, Timing> tuple : DataProcessorDelegate.this.processors) {
+                        if (tuple.getFirst().isApplicableTo(holderClass)) {
+                            builder.add(tuple);
+                        }
+                    }
+                    return builder.build();
+                }
+            };
 
     public DataProcessorDelegate(ImmutableList<DataProcessor<M, I>> processors) {
         ImmutableList.Builder<Tuple<DataProcessor<M, I>, Timing>> builder = ImmutableList.builder();
@@ -55,6 +70,14 @@ public DataProcessorDelegate(ImmutableList<DataProcessor<M, I>> processors) {
         this.processors = builder.build();
     }
 
+    private ImmutableList<Tuple<DataProcessor<M, I>, Timing>> getProcessors(DataHolder dataHolder) {
+        return this.applicableProcessors.get(dataHolder.getClass());
+    }
+
+    private static boolean isTimed() {
+        return MinecraftServer.getServer().isCallingFromMinecraftThread();
+    }
+
     @Override
     public int getPriority() {
         return Integer.MAX_VALUE;
@@ -62,19 +85,18 @@ public int getPriority() {
 
     @Override
     public boolean supports(DataHolder dataHolder) {
-        for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+        final boolean timed = isTimed();
+        for (Tuple<DataProcessor<M, I>, Timing> tuple : getProcessors(dataHolder)) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
-            if (tuple.getFirst().supports(dataHolder)) {
-                if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
-                    tuple.getSecond().stopTiming();
-                }
-                return true;
-            }
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            final boolean supports = tuple.getFirst().supports(dataHolder);
+            if (timed) {
                 tuple.getSecond().stopTiming();
             }
+            if (supports) {
+                return true;
+            }
         }
         return false;
     }
@@ -84,61 +106,64 @@ public boolean supports(EntityType entityType) {
         return false;
     }
 
+    @Override
+    public boolean isApplicableTo(Class<?> holderClass) {
+        return !this.applicableProcessors.get(holderClass).isEmpty();
+    }
+
     @Override
     public Optional<M> from(DataHolder dataHolder) {
-        for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+        final boolean timed = isTimed();
+        for (Tuple<DataProcessor<M, I>, Timing> tuple : getProcessors(dataHolder)) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
             if (tuple.getFirst().supports(dataHolder)) {
                 final Optional<M> optional = tuple.getFirst().from(dataHolder);
-                if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+                if (timed) {
                     tuple.getSecond().stopTiming();
                 }
                 if (optional.isPresent()) {
                     return optional;
                 }
-            }
-
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            } else if (timed) {
                 tuple.getSecond().stopTiming();
             }
-
         }
         return Optional.empty();
     }
 
     @Override
     public Optional<M> fill(DataHolder dataHolder, M manipulator, MergeFunction overlap) {
-        for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+        final boolean timed = isTimed();
+        for (Tuple<DataProcessor<M, I>, Timing> tuple : getProcessors(dataHolder)) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
             if (tuple.getFirst().supports(dataHolder)) {
                 final Optional<M> optional = tuple.getFirst().fill(dataHolder, manipulator, overlap);
-                if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+                if (timed) {
                     tuple.getSecond().stopTiming();
                 }
                 if (optional.isPresent()) {
                     return optional;
                 }
-            }
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            } else if (timed) {
                 tuple.getSecond().stopTiming();
             }
-
         }
         return Optional.empty();
     }
 
     @Override
     public Optional<M> fill(DataContainer container, M m) {
+        final boolean timed = isTimed();
         for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
             final Optional<M> optional = tuple.getFirst().fill(container, m);
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            if (timed) {
                 tuple.getSecond().stopTiming();
             }
             if (optional.isPresent()) {
@@ -150,20 +175,20 @@ public Optional<M> fill(DataContainer container, M m) {
 
     @Override
     public DataTransactionResult set(DataHolder dataHolder, M manipulator, MergeFunction function) {
-        for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+        final boolean timed = isTimed();
+        for (Tuple<DataProcessor<M, I>, Timing> tuple : getProcessors(dataHolder)) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
             if (tuple.getFirst().supports(dataHolder)) {
                 final DataTransactionResult result = tuple.getFirst().set(dataHolder, manipulator, function);
+                if (timed) {
+                    tuple.getSecond().stopTiming();
+                }
                 if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
-                    if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
-                        tuple.getSecond().stopTiming();
-                    }
                     return result;
                 }
-            }
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            } else if (timed) {
                 tuple.getSecond().stopTiming();
             }
         }
@@ -172,12 +197,13 @@ public DataTransactionResult set(DataHolder dataHolder, M manipulator, MergeFunc
 
     @Override
     public Optional<I> with(Key<? extends BaseValue<?>> key, Object value, I immutable) {
+        final boolean timed = isTimed();
         for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
             final Optional<I> optional = tuple.getFirst().with(key, value, immutable);
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            if (timed) {
                 tuple.getSecond().stopTiming();
             }
             if (optional.isPresent()) {
@@ -190,43 +216,42 @@ public Optional<I> with(Key<? extends BaseValue<?>> key, Object value, I immutab
 
     @Override
     public DataTransactionResult remove(DataHolder dataHolder) {
-        for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+        final boolean timed = isTimed();
+        for (Tuple<DataProcessor<M, I>, Timing> tuple : getProcessors(dataHolder)) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
             if (tuple.getFirst().supports(dataHolder)) {
                 final DataTransactionResult result = tuple.getFirst().remove(dataHolder);
-                if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+                if (timed) {
                     tuple.getSecond().stopTiming();
                 }
                 if (!result.getType().equals(DataTransactionResult.Type.FAILURE)) {
                     return result;
                 }
-            }
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            } else if (timed) {
                 tuple.getSecond().stopTiming();
             }
-
         }
         return DataTransactionResult.failNoData();
     }
 
     @Override
     public Optional<M> createFrom(DataHolder dataHolder) {
-        for (Tuple<DataProcessor<M, I>, Timing> tuple : this.processors) {
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+        final boolean timed = isTimed();
+        for (Tuple<DataProcessor<M, I>, Timing> tuple : getProcessors(dataHolder)) {
+            if (timed) {
                 tuple.getSecond().startTiming();
             }
             if (tuple.getFirst().supports(dataHolder)) {
                 final Optional<M> optional = tuple.getFirst().createFrom(dataHolder);
-                if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+                if (timed) {
                     tuple.getSecond().stopTiming();
                 }
                 if (optional.isPresent()) {
                     return optional;
                 }
-            }
-            if (MinecraftServer.getServer().isCallingFromMinecraftThread()) {
+            } else if (timed) {
                 tuple.getSecond().stopTiming();
             }
         }
@@ -124,6 +124,7 @@ private NbtDataUtil() {
     public static final String SPONGE_ENTITY_CREATOR = "Creator";
     public static final String SPONGE_ENTITY_NOTIFIER = "Notifier";
     public static final String SPONGE_BLOCK_POS_TABLE = "BlockPosTable";
+    public static final String SPONGE_TRACKED_BLOCKS = "TrackedBlocks";
     public static final String SPONGE_PLAYER_UUID_TABLE = "PlayerIdTable";
     public static final String CUSTOM_MANIPULATOR_TAG_LIST = "CustomManipulators";
     public static final String PROJECTILE_DAMAGE_AMOUNT = "damageAmount";
@@ -144,6 +145,7 @@ private NbtDataUtil() {
     public static final String DIMENSION_ID = "dimensionId";
     public static final String INVALID_TITLE = "invalid";
     public static final String IS_MOD = "isMod";
+    public static final String CHUNK_PRE_GENERATE = "ChunkPreGenerate";
     public static final String FORGE_ENTITY_TYPE = "entity_name";
 
     // Legacy migration tags from Bukkit
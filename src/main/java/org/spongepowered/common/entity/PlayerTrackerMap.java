@@ -0,0 +1,186 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import java.util.Arrays;
+
+/**
+ * Stores the owner and notifier indexes of the tracked block positions of a
+ * chunk in primitive arrays, using open addressing. Positions are relative
+ * to the chunk, an index of -1 means there is no owner or notifier.
+ */
+public final class PlayerTrackerMap {
+
+    private static final int INITIAL_CAPACITY = 16;
+    // A key of 0 marks an empty slot, which is why keys are offset by one
+    private static final int EMPTY = 0;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] owners = new int[INITIAL_CAPACITY];
+    private int[] notifiers = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private static int key(int x, int y, int z) {
+        return ((y & 0x7FFFFF) << 8 | (z & 0xF) << 4 | (x & 0xF)) + 1;
+    }
+
+    private int slot(int key) {
+        final int mask = this.keys.length - 1;
+        final int hash = key * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (this.keys[slot] != EMPTY && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return this.keys[slot(key(x, y, z))] != EMPTY;
+    }
+
+    public int getOwner(int x, int y, int z) {
+        final int slot = slot(key(x, y, z));
+        return this.keys[slot] == EMPTY ? -1 : this.owners[slot];
+    }
+
+    public int getNotifier(int x, int y, int z) {
+        final int slot = slot(key(x, y, z));
+        return this.keys[slot] == EMPTY ? -1 : this.notifiers[slot];
+    }
+
+    public void setOwner(int x, int y, int z, int owner) {
+        this.owners[getOrCreateSlot(key(x, y, z))] = owner;
+    }
+
+    public void setNotifier(int x, int y, int z, int notifier) {
+        this.notifiers[getOrCreateSlot(key(x, y, z))] = notifier;
+    }
+
+    public void set(int x, int y, int z, int owner, int notifier) {
+        final int slot = getOrCreateSlot(key(x, y, z));
+        this.owners[slot] = owner;
+        this.notifiers[slot] = notifier;
+    }
+
+    private int getOrCreateSlot(int key) {
+        int slot = slot(key);
+        if (this.keys[slot] == EMPTY) {
+            // Keep the load factor at or below 3/4
+            if ((this.size + 1) * 4 > this.keys.length * 3) {
+                resize(this.keys.length * 2);
+                slot = slot(key);
+            }
+            this.keys[slot] = key;
+            this.owners[slot] = -1;
+            this.notifiers[slot] = -1;
+            this.size++;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        final int[] oldKeys = this.keys;
+        final int[] oldOwners = this.owners;
+        final int[] oldNotifiers = this.notifiers;
+        this.keys = new int[capacity];
+        this.owners = new int[capacity];
+        this.notifiers = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                final int slot = slot(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.owners[slot] = oldOwners[i];
+                this.notifiers[slot] = oldNotifiers[i];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, EMPTY);
+        this.size = 0;
+    }
+
+    /**
+     * Passes every tracked position to the visitor.
+     *
+     * @param visitor The visitor
+     */
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < this.keys.length; i++) {
+            final int key = this.keys[i];
+            if (key != EMPTY) {
+                final int packed = key - 1;
+                visitor.visit(packed & 0xF, packed >>> 8, (packed >> 4) & 0xF, this.owners[i], this.notifiers[i]);
+            }
+        }
+    }
+
+    /**
+     * Packs the tracked positions into an array of position, owner and
+     * notifier triples, where the position is packed as
+     * {@code y << 8 | z << 4 | x}.
+     *
+     * @return The packed positions
+     */
+    public int[] toArray() {
+        final int[] array = new int[this.size * 3];
+        int index = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] != EMPTY) {
+                array[index++] = this.keys[i] - 1;
+                array[index++] = this.owners[i];
+                array[index++] = this.notifiers[i];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Reads tracked positions packed by {@link #toArray()}.
+     *
+     * @param array The packed positions
+     */
+    public void addAll(int[] array) {
+        for (int i = 0; i + 2 < array.length; i += 3) {
+            final int packed = array[i];
+            set(packed & 0xF, packed >>> 8, (packed >> 4) & 0xF, array[i + 1], array[i + 2]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+
+        void visit(int x, int y, int z, int owner, int notifier);
+    }
+
+}
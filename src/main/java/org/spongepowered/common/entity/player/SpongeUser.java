@@ -49,6 +49,7 @@
 import org.spongepowered.common.data.util.DataQueries;
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.registry.type.world.WorldPropertyRegistryModule;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.DimensionManager;
 
@@ -313,6 +314,7 @@ public void save() {
         try {
             CompressedStreamTools.writeCompressed(tag, new FileOutputStream(dataFile));
             dirtyUsers.remove(this);
+            UserIndex.onDataSaved(this.profile);
         } catch (IOException e) {
             SpongeHooks.logWarning("Failed to save user file {}. {}", dataFile, e);
         }
@@ -26,9 +26,9 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.flowpowered.math.vector.Vector3i;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockLiquid;
 import net.minecraft.block.state.IBlockState;
@@ -54,6 +54,8 @@
 import net.minecraft.network.play.client.C08PacketPlayerBlockPlacement;
 import net.minecraft.network.play.client.C0EPacketClickWindow;
 import net.minecraft.network.play.client.C10PacketCreativeInventoryAction;
+import net.minecraft.network.play.server.S21PacketChunkData;
+import net.minecraft.network.play.server.S22PacketMultiBlockChange;
 import net.minecraft.network.play.server.S23PacketBlockChange;
 import net.minecraft.network.play.server.S2FPacketSetSlot;
 import net.minecraft.stats.StatList;
@@ -62,6 +64,7 @@
 import net.minecraft.util.EntityDamageSource;
 import net.minecraft.util.MathHelper;
 import net.minecraft.util.ReportedException;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.EmptyChunk;
 import org.spongepowered.api.block.BlockSnapshot;
@@ -108,16 +111,24 @@
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 
 public final class CauseTracker {
 
+    // The player manager resends whole chunk sections from this many changes on
+    private static final int MAX_MULTI_BLOCK_CHANGES = 64;
+
     private final net.minecraft.world.World targetWorld;
     private boolean processingBlockRandomTicks = false;
     private boolean processingVanillaBlockEvent = false;
@@ -142,6 +153,8 @@ public final class CauseTracker {
     private boolean chunkSpawnerRunning;
     private Deque<Cause> causeStack = new ArrayDeque<>();
     private Packet<?> currentPlayerPacket;
+    private final List<BlockCaptureBuffers> blockCaptureBuffers = new ArrayList<>();
+    private int blockCaptureDepth = 0;
 
     public CauseTracker(net.minecraft.world.World targetWorld) {
         this.targetWorld = targetWorld;
@@ -443,6 +456,15 @@ public void handleSpawnedEntities() {
             return;
         }
 
+        final boolean hasSingleListener = SpongeImpl.hasListener(SpawnEntityEvent.class);
+        final boolean hasListener;
+        if (this.worldSpawnerRunning) {
+            hasListener = SpongeImpl.hasListener(SpawnEntityEvent.Spawner.class);
+        } else if (this.chunkSpawnerRunning) {
+            hasListener = SpongeImpl.hasListener(SpawnEntityEvent.ChunkLoad.class);
+        } else {
+            hasListener = SpongeImpl.hasListener(SpawnEntityEvent.Custom.class);
+        }
         Iterator<Entity> iter = this.capturedSpawnedEntities.iterator();
         ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<>();
         while (iter.hasNext()) {
@@ -466,8 +488,6 @@ public void handleSpawnedEntities() {
             IMixinEntity spongeEntity = (IMixinEntity) currentEntity;
             SpawnCause spawnCause = spongeEntity.getSpawnCause();
             if (spawnCause != null) {
-                ImmutableList.Builder<EntitySnapshot> entitySingleSnapshotBuilder = new ImmutableList.Builder<>();
-                entitySingleSnapshotBuilder.add(currentEntity.createSnapshot());
                 List<Entity> entityList = new ArrayList<>();
                 entityList.add(currentEntity);
                 List<NamedCause> namedCauses = new ArrayList<>();
@@ -478,12 +498,19 @@ public void handleSpawnedEntities() {
                 }
 
                 Cause cause = Cause.of(namedCauses);
-                SpawnEntityEvent event = SpongeEventFactory.createSpawnEntityEvent(cause, entityList, entitySingleSnapshotBuilder.build(), this.getWorld());
-                handlePostEntityEvent(cause, event);
+                if (hasSingleListener) {
+                    SpawnEntityEvent event = SpongeEventFactory.createSpawnEntityEvent(cause, entityList, ImmutableList.of(currentEntity.createSnapshot()),
+                            this.getWorld());
+                    handlePostEntityEvent(cause, event);
+                } else {
+                    spawnEntities(cause, entityList);
+                }
                 iter.remove();
                 continue;
             }
-            entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            if (hasListener) {
+                entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            }
         }
 
         if (this.capturedSpawnedEntities.isEmpty()) {
@@ -498,6 +525,11 @@ public void handleSpawnedEntities() {
             cause = SpongeCommonEventFactory.getEntitySpawnCause((net.minecraft.entity.Entity) this.capturedSpawnedEntities.get(0));
         }
 
+        if (!hasListener) {
+            spawnEntities(cause, this.capturedSpawnedEntities);
+            return;
+        }
+
         List<EntitySnapshot> entitySnapshots = entitySnapshotBuilder.build();
         if (entitySnapshots.isEmpty()) {
             return;
@@ -522,6 +554,8 @@ public void handleDroppedItems() {
             return;
         }
 
+        final boolean hasSingleListener = SpongeImpl.hasListener(DropItemEvent.Destruct.class);
+        final boolean hasListener = SpongeImpl.hasListener(DropItemEvent.Dispense.class);
         Iterator<Entity> iter = this.capturedSpawnedEntityItems.iterator();
         ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<>();
         while (iter.hasNext()) {
@@ -545,8 +579,6 @@ public void handleDroppedItems() {
             IMixinEntity spongeEntity = (IMixinEntity) currentEntity;
             SpawnCause spawnCause = spongeEntity.getSpawnCause();
             if (spawnCause != null) {
-                ImmutableList.Builder<EntitySnapshot> entityItemSnapshotBuilder = new ImmutableList.Builder<>();
-                entityItemSnapshotBuilder.add(currentEntity.createSnapshot());
                 List<Entity> entityItemList = new ArrayList<>();
                 entityItemList.add(currentEntity);
                 List<NamedCause> namedCauses = new ArrayList<>();
@@ -557,14 +589,21 @@ public void handleDroppedItems() {
                 }
 
                 Cause cause = Cause.of(namedCauses);
-                DropItemEvent.Destruct event = SpongeEventFactory.createDropItemEventDestruct(cause, entityItemList, entityItemSnapshotBuilder.build(), this.getWorld());
-                if (handlePostEntityEvent(cause, event)) {
-                    sendItemChangeToPlayer(StaticMixinHelper.packetPlayer);
+                if (hasSingleListener) {
+                    DropItemEvent.Destruct event = SpongeEventFactory.createDropItemEventDestruct(cause, entityItemList,
+                            ImmutableList.of(currentEntity.createSnapshot()), this.getWorld());
+                    if (handlePostEntityEvent(cause, event)) {
+                        sendItemChangeToPlayer(StaticMixinHelper.packetPlayer);
+                    }
+                } else {
+                    spawnEntities(cause, entityItemList);
                 }
                 iter.remove();
                 continue;
             }
-            entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            if (hasListener) {
+                entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            }
         }
 
         if (this.capturedSpawnedEntityItems.isEmpty()) {
@@ -579,6 +618,11 @@ public void handleDroppedItems() {
             cause = SpongeCommonEventFactory.getEntitySpawnCause((net.minecraft.entity.Entity) this.capturedSpawnedEntityItems.get(0));
         }
 
+        if (!hasListener) {
+            spawnEntities(cause, this.capturedSpawnedEntityItems);
+            return;
+        }
+
         List<EntitySnapshot> entitySnapshots = entitySnapshotBuilder.build();
         if (entitySnapshots.isEmpty()) {
             return;
@@ -593,32 +637,36 @@ public void handleDroppedItems() {
 
     private boolean handlePostEntityEvent(Cause cause, Event event) {
         if (!(SpongeImpl.postEvent(event))) {
-            Iterator<Entity> iterator = ((SpawnEntityEvent) event).getEntities().iterator();
+            spawnEntities(cause, ((SpawnEntityEvent) event).getEntities());
+            return false;
+        }
 
-            while (iterator.hasNext()) {
-                Entity entity = iterator.next();
-                if (entity.isRemoved()) { // Entity removed in an event handler
-                    iterator.remove();
-                    continue;
-                }
+        return true;
+    }
 
-                net.minecraft.entity.Entity nmsEntity = (net.minecraft.entity.Entity) entity;
-                if (nmsEntity instanceof EntityWeatherEffect) {
-                    addWeatherEffect(nmsEntity, cause);
-                } else {
-                    int x = MathHelper.floor_double(nmsEntity.posX / 16.0D);
-                    int z = MathHelper.floor_double(nmsEntity.posZ / 16.0D);
-                    this.getMinecraftWorld().getChunkFromChunkCoords(x, z).addEntity(nmsEntity);
-                    this.getMinecraftWorld().loadedEntityList.add(nmsEntity);
-                    this.getMixinWorld().onSpongeEntityAdded(nmsEntity);
-                    SpongeHooks.logEntitySpawn(cause, nmsEntity);
-                }
+    private void spawnEntities(Cause cause, List<Entity> entities) {
+        Iterator<Entity> iterator = entities.iterator();
+
+        while (iterator.hasNext()) {
+            Entity entity = iterator.next();
+            if (entity.isRemoved()) { // Entity removed in an event handler
                 iterator.remove();
+                continue;
             }
-            return false;
-        }
 
-        return true;
+            net.minecraft.entity.Entity nmsEntity = (net.minecraft.entity.Entity) entity;
+            if (nmsEntity instanceof EntityWeatherEffect) {
+                addWeatherEffect(nmsEntity, cause);
+            } else {
+                int x = MathHelper.floor_double(nmsEntity.posX / 16.0D);
+                int z = MathHelper.floor_double(nmsEntity.posZ / 16.0D);
+                this.getMinecraftWorld().getChunkFromChunkCoords(x, z).addEntity(nmsEntity);
+                this.getMinecraftWorld().loadedEntityList.add(nmsEntity);
+                this.getMixinWorld().onSpongeEntityAdded(nmsEntity);
+                SpongeHooks.logEntitySpawn(cause, nmsEntity);
+            }
+            iterator.remove();
+        }
     }
 
     private boolean addWeatherEffect(net.minecraft.entity.Entity entity, Cause cause) {
@@ -680,70 +728,77 @@ public void handleBlockBreak(int preEntitySize, int preEntityItemSize, BlockPos
     }
 
     public void handleBlockCaptures() {
+        if (this.capturedSpongeBlockSnapshots.isEmpty()) {
+            return;
+        }
+
+        // Block captures are processed re-entrantly, as notifications in markAndNotifyBlockPost
+        // may capture further blocks, so each nesting depth gets its own set of buffers.
+        if (this.blockCaptureDepth == this.blockCaptureBuffers.size()) {
+            this.blockCaptureBuffers.add(new BlockCaptureBuffers());
+        }
+        BlockCaptureBuffers buffers = this.blockCaptureBuffers.get(this.blockCaptureDepth++);
+        try {
+            handleBlockCaptures(buffers);
+        } finally {
+            buffers.clear();
+            this.blockCaptureDepth--;
+        }
+    }
+
+    private void handleBlockCaptures(BlockCaptureBuffers buffers) {
         Cause cause = this.getCurrentCause();
         EntityPlayerMP player = StaticMixinHelper.packetPlayer;
 
-        ImmutableList<Transaction<BlockSnapshot>> blockBreakTransactions = null;
-        ImmutableList<Transaction<BlockSnapshot>> blockModifyTransactions = null;
-        ImmutableList<Transaction<BlockSnapshot>> blockPlaceTransactions = null;
-        ImmutableList<Transaction<BlockSnapshot>> blockDecayTransactions = null;
-        ImmutableList<Transaction<BlockSnapshot>> blockMultiTransactions = null;
-        ImmutableList.Builder<Transaction<BlockSnapshot>> breakBuilder = new ImmutableList.Builder<>();
-        ImmutableList.Builder<Transaction<BlockSnapshot>> placeBuilder = new ImmutableList.Builder<>();
-        ImmutableList.Builder<Transaction<BlockSnapshot>> decayBuilder = new ImmutableList.Builder<>();
-        ImmutableList.Builder<Transaction<BlockSnapshot>> modifyBuilder = new ImmutableList.Builder<>();
-        ImmutableList.Builder<Transaction<BlockSnapshot>> multiBuilder = new ImmutableList.Builder<>();
-        ChangeBlockEvent.Break breakEvent = null;
-        ChangeBlockEvent.Modify modifyEvent = null;
-        ChangeBlockEvent.Place placeEvent = null;
-        List<ChangeBlockEvent> blockEvents = new ArrayList<>();
-
-        Iterator<BlockSnapshot> iterator = this.capturedSpongeBlockSnapshots.iterator();
-        while (iterator.hasNext()) {
-            SpongeBlockSnapshot blockSnapshot = (SpongeBlockSnapshot) iterator.next();
+        for (int i = 0; i < this.capturedSpongeBlockSnapshots.size(); i++) {
+            SpongeBlockSnapshot blockSnapshot = (SpongeBlockSnapshot) this.capturedSpongeBlockSnapshots.get(i);
             CaptureType captureType = blockSnapshot.captureType;
             BlockPos pos = VecHelper.toBlockPos(blockSnapshot.getPosition());
             IBlockState currentState = this.getMinecraftWorld().getBlockState(pos);
             Transaction<BlockSnapshot> transaction = new Transaction<>(blockSnapshot, this.getMixinWorld().createSpongeBlockSnapshot(currentState, currentState.getBlock()
                 .getActualState(currentState, this.getMinecraftWorld(), pos), pos, 0));
             if (captureType == CaptureType.BREAK) {
-                breakBuilder.add(transaction);
+                buffers.breakTransactions.add(transaction);
             } else if (captureType == CaptureType.DECAY) {
-                decayBuilder.add(transaction);
+                buffers.decayTransactions.add(transaction);
             } else if (captureType == CaptureType.PLACE) {
-                placeBuilder.add(transaction);
+                buffers.placeTransactions.add(transaction);
             } else if (captureType == CaptureType.MODIFY) {
-                modifyBuilder.add(transaction);
+                buffers.modifyTransactions.add(transaction);
             }
-            multiBuilder.add(transaction);
-            iterator.remove();
+            buffers.multiTransactions.add(transaction);
         }
+        this.capturedSpongeBlockSnapshots.clear();
 
-        blockBreakTransactions = breakBuilder.build();
-        blockDecayTransactions = decayBuilder.build();
-        blockModifyTransactions = modifyBuilder.build();
-        blockPlaceTransactions = placeBuilder.build();
-        blockMultiTransactions = multiBuilder.build();
-        ChangeBlockEvent changeBlockEvent;
-        if (blockBreakTransactions.size() > 0) {
-            changeBlockEvent = SpongeEventFactory.createChangeBlockEventBreak(cause, this.getWorld(), blockBreakTransactions);
-            SpongeImpl.postEvent(changeBlockEvent);
-            breakEvent = (ChangeBlockEvent.Break) changeBlockEvent;
-            blockEvents.add(changeBlockEvent);
-        }
-        if (blockModifyTransactions.size() > 0) {
-            changeBlockEvent = SpongeEventFactory.createChangeBlockEventModify(cause, this.getWorld(), blockModifyTransactions);
-            SpongeImpl.postEvent(changeBlockEvent);
-            modifyEvent = (ChangeBlockEvent.Modify) changeBlockEvent;
-            blockEvents.add(changeBlockEvent);
-        }
-        if (blockPlaceTransactions.size() > 0) {
-            changeBlockEvent = SpongeEventFactory.createChangeBlockEventPlace(cause, this.getWorld(), blockPlaceTransactions);
-            SpongeImpl.postEvent(changeBlockEvent);
-            placeEvent = (ChangeBlockEvent.Place) changeBlockEvent;
-            blockEvents.add(changeBlockEvent);
-        }
-        if (blockEvents.size() > 1) {
+        // Events are only constructed when something listens for them, otherwise the
+        // captured transactions are processed directly as if the event went through untouched.
+        ChangeBlockEvent.Break breakEvent = null;
+        ChangeBlockEvent.Modify modifyEvent = null;
+        ChangeBlockEvent.Place placeEvent = null;
+        ChangeBlockEvent.Decay decayEvent = null;
+        int capturedTypes = 0;
+        if (!buffers.breakTransactions.isEmpty()) {
+            capturedTypes++;
+            if (SpongeImpl.hasListener(ChangeBlockEvent.Break.class)) {
+                breakEvent = SpongeEventFactory.createChangeBlockEventBreak(cause, this.getWorld(), ImmutableList.copyOf(buffers.breakTransactions));
+                SpongeImpl.postEvent(breakEvent);
+            }
+        }
+        if (!buffers.modifyTransactions.isEmpty()) {
+            capturedTypes++;
+            if (SpongeImpl.hasListener(ChangeBlockEvent.Modify.class)) {
+                modifyEvent = SpongeEventFactory.createChangeBlockEventModify(cause, this.getWorld(), ImmutableList.copyOf(buffers.modifyTransactions));
+                SpongeImpl.postEvent(modifyEvent);
+            }
+        }
+        if (!buffers.placeTransactions.isEmpty()) {
+            capturedTypes++;
+            if (SpongeImpl.hasListener(ChangeBlockEvent.Place.class)) {
+                placeEvent = SpongeEventFactory.createChangeBlockEventPlace(cause, this.getWorld(), ImmutableList.copyOf(buffers.placeTransactions));
+                SpongeImpl.postEvent(placeEvent);
+            }
+        }
+        if (capturedTypes > 1) {
             if (breakEvent != null) {
                 int count = cause.allOf(ChangeBlockEvent.Break.class).size();
                 String namedCause = "BreakEvent" + (count != 0 ? count : "");
@@ -759,121 +814,125 @@ public void handleBlockCaptures() {
                 String namedCause = "PlaceEvent" + (count != 0 ? count : "");
                 cause = cause.with(NamedCause.of(namedCause, placeEvent));
             }
-            changeBlockEvent = SpongeEventFactory.createChangeBlockEventPost(cause, this.getWorld(), blockMultiTransactions);
-            SpongeImpl.postEvent(changeBlockEvent);
-            if (changeBlockEvent.isCancelled()) {
-                // Restore original blocks
-                ListIterator<Transaction<BlockSnapshot>>
-                    listIterator =
-                    changeBlockEvent.getTransactions().listIterator(changeBlockEvent.getTransactions().size());
-                processList(listIterator);
-
-                if (player != null) {
-                    CaptureType captureType = null;
-                    if (this.currentPlayerPacket instanceof C08PacketPlayerBlockPlacement) {
-                        captureType = CaptureType.PLACE;
-                    } else if (this.currentPlayerPacket instanceof C07PacketPlayerDigging) {
-                        captureType = CaptureType.BREAK;
-                    }
-                    if (captureType != null) {
-                        handlePostPlayerBlockEvent(captureType, changeBlockEvent.getTransactions());
+            if (SpongeImpl.hasListener(ChangeBlockEvent.Post.class)) {
+                ChangeBlockEvent.Post postEvent = SpongeEventFactory.createChangeBlockEventPost(cause, this.getWorld(),
+                        ImmutableList.copyOf(buffers.multiTransactions));
+                SpongeImpl.postEvent(postEvent);
+                if (postEvent.isCancelled()) {
+                    // Restore original blocks
+                    ListIterator<Transaction<BlockSnapshot>>
+                        listIterator =
+                        postEvent.getTransactions().listIterator(postEvent.getTransactions().size());
+                    processList(listIterator);
+
+                    if (player != null) {
+                        CaptureType captureType = null;
+                        if (this.currentPlayerPacket instanceof C08PacketPlayerBlockPlacement) {
+                            captureType = CaptureType.PLACE;
+                        } else if (this.currentPlayerPacket instanceof C07PacketPlayerDigging) {
+                            captureType = CaptureType.BREAK;
+                        }
+                        if (captureType != null) {
+                            handlePostPlayerBlockEvent(captureType, postEvent.getTransactions());
+                        }
                     }
-                }
 
-                // clear entity list and return to avoid spawning items
-                this.capturedSpawnedEntities.clear();
-                this.capturedSpawnedEntityItems.clear();
-                return;
+                    // clear entity list and return to avoid spawning items
+                    this.capturedSpawnedEntities.clear();
+                    this.capturedSpawnedEntityItems.clear();
+                    return;
+                }
             }
         }
 
-        if (blockDecayTransactions.size() > 0) {
-            changeBlockEvent = SpongeEventFactory.createChangeBlockEventDecay(cause, this.getWorld(), blockDecayTransactions);
-            SpongeImpl.postEvent(changeBlockEvent);
-            blockEvents.add(changeBlockEvent);
+        if (!buffers.decayTransactions.isEmpty() && SpongeImpl.hasListener(ChangeBlockEvent.Decay.class)) {
+            decayEvent = SpongeEventFactory.createChangeBlockEventDecay(cause, this.getWorld(), ImmutableList.copyOf(buffers.decayTransactions));
+            SpongeImpl.postEvent(decayEvent);
         }
 
-        for (ChangeBlockEvent blockEvent : blockEvents) {
-            CaptureType captureType = null;
-            if (blockEvent instanceof ChangeBlockEvent.Break) {
-                captureType = CaptureType.BREAK;
-            } else if (blockEvent instanceof ChangeBlockEvent.Decay) {
-                captureType = CaptureType.DECAY;
-            } else if (blockEvent instanceof ChangeBlockEvent.Modify) {
-                captureType = CaptureType.MODIFY;
-            } else if (blockEvent instanceof ChangeBlockEvent.Place) {
-                captureType = CaptureType.PLACE;
-            }
+        if (processBlockCaptures(CaptureType.BREAK, breakEvent, buffers.breakTransactions, cause, player)
+                && processBlockCaptures(CaptureType.MODIFY, modifyEvent, buffers.modifyTransactions, cause, player)
+                && processBlockCaptures(CaptureType.PLACE, placeEvent, buffers.placeTransactions, cause, player)) {
+            processBlockCaptures(CaptureType.DECAY, decayEvent, buffers.decayTransactions, cause, player);
+        }
+    }
 
-            C08PacketPlayerBlockPlacement packet = null;
+    /**
+     * Applies the outcome of a block capture, either from the posted event or
+     * directly from the captured transactions if no event was constructed.
+     *
+     * @return False if the event was cancelled and processing should stop
+     */
+    private boolean processBlockCaptures(CaptureType captureType, @Nullable ChangeBlockEvent blockEvent,
+            List<Transaction<BlockSnapshot>> capturedTransactions, Cause cause, @Nullable EntityPlayerMP player) {
+        if (capturedTransactions.isEmpty()) {
+            return true;
+        }
+        List<Transaction<BlockSnapshot>> transactions = blockEvent != null ? blockEvent.getTransactions() : capturedTransactions;
 
-            if (this.currentPlayerPacket instanceof C08PacketPlayerBlockPlacement) {
-                packet = (C08PacketPlayerBlockPlacement) this.currentPlayerPacket;
-            }
+        C08PacketPlayerBlockPlacement packet = null;
 
-            if (blockEvent.isCancelled()) {
-                // Restore original blocks
-                ListIterator<Transaction<BlockSnapshot>>
-                    listIterator =
-                    blockEvent.getTransactions().listIterator(blockEvent.getTransactions().size());
-                processList(listIterator);
+        if (this.currentPlayerPacket instanceof C08PacketPlayerBlockPlacement) {
+            packet = (C08PacketPlayerBlockPlacement) this.currentPlayerPacket;
+        }
 
-                handlePostPlayerBlockEvent(captureType, blockEvent.getTransactions());
+        if (blockEvent != null && blockEvent.isCancelled()) {
+            // Restore original blocks
+            ListIterator<Transaction<BlockSnapshot>> listIterator = transactions.listIterator(transactions.size());
+            processList(listIterator);
 
-                // clear entity list and return to avoid spawning items
-                this.capturedSpawnedEntities.clear();
-                this.capturedSpawnedEntityItems.clear();
-                return;
+            handlePostPlayerBlockEvent(captureType, transactions);
+
+            // clear entity list and return to avoid spawning items
+            this.capturedSpawnedEntities.clear();
+            this.capturedSpawnedEntityItems.clear();
+            return false;
+        }
+
+        for (Transaction<BlockSnapshot> transaction : transactions) {
+            if (!transaction.isValid()) {
+                this.invalidTransactions.add(transaction);
             } else {
-                for (Transaction<BlockSnapshot> transaction : blockEvent.getTransactions()) {
-                    if (!transaction.isValid()) {
-                        this.invalidTransactions.add(transaction);
-                    } else {
-                        if (captureType == CaptureType.BREAK && !(transaction.getOriginal().getState().getType() instanceof BlockLiquid) && cause.first(User.class).isPresent()) {
-                            BlockPos pos = VecHelper.toBlockPos(transaction.getOriginal().getPosition());
-                            for (EntityHanging hanging : SpongeHooks.findHangingEntities(this.getMinecraftWorld(), pos)) {
-                                if (hanging != null) {
-                                    if (hanging instanceof EntityItemFrame) {
-                                        EntityItemFrame itemFrame = (EntityItemFrame) hanging;
-                                        net.minecraft.entity.Entity dropCause = null;
-                                        if (cause.root() instanceof net.minecraft.entity.Entity) {
-                                            dropCause = (net.minecraft.entity.Entity) cause.root();
-                                        }
-
-                                        itemFrame.dropItemOrSelf(dropCause, true);
-                                        itemFrame.setDead();
-                                    }
+                if (captureType == CaptureType.BREAK && !(transaction.getOriginal().getState().getType() instanceof BlockLiquid) && cause.first(User.class).isPresent()) {
+                    BlockPos pos = VecHelper.toBlockPos(transaction.getOriginal().getPosition());
+                    for (EntityHanging hanging : SpongeHooks.findHangingEntities(this.getMinecraftWorld(), pos)) {
+                        if (hanging != null) {
+                            if (hanging instanceof EntityItemFrame) {
+                                EntityItemFrame itemFrame = (EntityItemFrame) hanging;
+                                net.minecraft.entity.Entity dropCause = null;
+                                if (cause.root() instanceof net.minecraft.entity.Entity) {
+                                    dropCause = (net.minecraft.entity.Entity) cause.root();
                                 }
-                            }
-                        }
 
-                        if (captureType == CaptureType.PLACE && player != null && this.currentPlayerPacket instanceof C08PacketPlayerBlockPlacement) {
-                            BlockPos pos = VecHelper.toBlockPos(transaction.getFinal().getPosition());
-                            IMixinChunk spongeChunk = (IMixinChunk) this.getMinecraftWorld().getChunkFromBlockCoords(pos);
-                            spongeChunk.addTrackedBlockPosition((net.minecraft.block.Block) transaction.getFinal().getState().getType(), pos,
-                                (User) player, PlayerTracker.Type.OWNER);
-                            spongeChunk.addTrackedBlockPosition((net.minecraft.block.Block) transaction.getFinal().getState().getType(), pos,
-                                (User) player, PlayerTracker.Type.NOTIFIER);
+                                itemFrame.dropItemOrSelf(dropCause, true);
+                                itemFrame.setDead();
+                            }
                         }
                     }
                 }
 
-                if (this.invalidTransactions.size() > 0) {
-                    for (Transaction<BlockSnapshot> transaction : Lists.reverse(this.invalidTransactions)) {
-                        this.restoringBlocks = true;
-                        transaction.getOriginal().restore(true, false);
-                        this.restoringBlocks = false;
-                    }
-                    handlePostPlayerBlockEvent(captureType, this.invalidTransactions);
+                if (captureType == CaptureType.PLACE && player != null && this.currentPlayerPacket instanceof C08PacketPlayerBlockPlacement) {
+                    BlockPos pos = VecHelper.toBlockPos(transaction.getFinal().getPosition());
+                    IMixinChunk spongeChunk = (IMixinChunk) this.getMinecraftWorld().getChunkFromBlockCoords(pos);
+                    spongeChunk.addTrackedBlockPosition((net.minecraft.block.Block) transaction.getFinal().getState().getType(), pos,
+                        (User) player, PlayerTracker.Type.OWNER);
+                    spongeChunk.addTrackedBlockPosition((net.minecraft.block.Block) transaction.getFinal().getState().getType(), pos,
+                        (User) player, PlayerTracker.Type.NOTIFIER);
                 }
+            }
+        }
 
-                this.markAndNotifyBlockPost(blockEvent.getTransactions(), captureType);
+        if (this.invalidTransactions.size() > 0) {
+            processList(this.invalidTransactions.listIterator(this.invalidTransactions.size()));
+            handlePostPlayerBlockEvent(captureType, this.invalidTransactions);
+        }
 
-                if (captureType == CaptureType.PLACE && player != null && packet != null && packet.getStack() != null) {
-                    player.addStat(StatList.objectUseStats[net.minecraft.item.Item.getIdFromItem(packet.getStack().getItem())], 1);
-                }
-            }
+        this.markAndNotifyBlockPost(transactions, captureType);
+
+        if (captureType == CaptureType.PLACE && player != null && packet != null && packet.getStack() != null) {
+            player.addStat(StatList.objectUseStats[net.minecraft.item.Item.getIdFromItem(packet.getStack().getItem())], 1);
         }
+        return true;
     }
 
     private void handlePostPlayerBlockEvent(CaptureType captureType, List<Transaction<BlockSnapshot>> transactions) {
@@ -883,23 +942,67 @@ private void handlePostPlayerBlockEvent(CaptureType captureType, List<Transactio
 
         if (captureType == CaptureType.BREAK) {
             // Let the client know the blocks still exist
-            for (Transaction<BlockSnapshot> transaction : transactions) {
-                BlockSnapshot snapshot = transaction.getOriginal();
-                BlockPos pos = VecHelper.toBlockPos(snapshot.getPosition());
-                StaticMixinHelper.packetPlayer.playerNetServerHandler.sendPacket(new S23PacketBlockChange(this.getMinecraftWorld(), pos));
-
-                // Update any tile entity data for this block
-                net.minecraft.tileentity.TileEntity tileentity = this.getMinecraftWorld().getTileEntity(pos);
-                if (tileentity != null) {
-                    Packet<?> pkt = tileentity.getDescriptionPacket();
-                    if (pkt != null) {
-                        StaticMixinHelper.packetPlayer.playerNetServerHandler.sendPacket(pkt);
+            sendBlockChanges(StaticMixinHelper.packetPlayer, transactions);
+        }
+
+        sendItemChangeToPlayer(StaticMixinHelper.packetPlayer);
+    }
+
+    /**
+     * Resends the current blocks at the positions of the given transactions,
+     * coalesced per chunk into as few packets as possible.
+     */
+    private void sendBlockChanges(EntityPlayerMP player, List<Transaction<BlockSnapshot>> transactions) {
+        final net.minecraft.world.World world = this.getMinecraftWorld();
+        final Map<Long, Set<BlockPos>> positionsByChunk = new LinkedHashMap<>();
+        for (Transaction<BlockSnapshot> transaction : transactions) {
+            final BlockPos pos = VecHelper.toBlockPos(transaction.getOriginal().getPosition());
+            positionsByChunk.computeIfAbsent(ChunkCoordIntPair.chunkXZ2Int(pos.getX() >> 4, pos.getZ() >> 4), key -> new LinkedHashSet<>())
+                    .add(pos);
+        }
+
+        for (Set<BlockPos> positions : positionsByChunk.values()) {
+            final BlockPos first = positions.iterator().next();
+            if (positions.size() == 1) {
+                player.playerNetServerHandler.sendPacket(new S23PacketBlockChange(world, first));
+                sendTileEntityUpdate(player, world.getTileEntity(first));
+                continue;
+            }
+
+            final Chunk chunk = world.getChunkFromBlockCoords(first);
+            if (positions.size() < MAX_MULTI_BLOCK_CHANGES) {
+                final short[] changes = new short[positions.size()];
+                int index = 0;
+                for (BlockPos pos : positions) {
+                    changes[index++] = (short) ((pos.getX() & 15) << 12 | (pos.getZ() & 15) << 8 | pos.getY());
+                }
+                player.playerNetServerHandler.sendPacket(new S22PacketMultiBlockChange(changes.length, changes, chunk));
+                for (BlockPos pos : positions) {
+                    sendTileEntityUpdate(player, world.getTileEntity(pos));
+                }
+            } else {
+                // Too many changes, resend the affected sections like the player manager does
+                int sectionMask = 0;
+                for (BlockPos pos : positions) {
+                    sectionMask |= 1 << (pos.getY() >> 4);
+                }
+                player.playerNetServerHandler.sendPacket(new S21PacketChunkData(chunk, false, sectionMask));
+                for (net.minecraft.tileentity.TileEntity tileEntity : chunk.getTileEntityMap().values()) {
+                    if ((sectionMask & 1 << (tileEntity.getPos().getY() >> 4)) != 0) {
+                        sendTileEntityUpdate(player, tileEntity);
                     }
                 }
             }
         }
+    }
 
-        sendItemChangeToPlayer(StaticMixinHelper.packetPlayer);
+    private static void sendTileEntityUpdate(EntityPlayerMP player, @Nullable net.minecraft.tileentity.TileEntity tileEntity) {
+        if (tileEntity != null) {
+            Packet<?> pkt = tileEntity.getDescriptionPacket();
+            if (pkt != null) {
+                player.playerNetServerHandler.sendPacket(pkt);
+            }
+        }
     }
 
     public void handleNonLivingEntityDestruct(net.minecraft.entity.Entity entityIn) {
@@ -954,8 +1057,20 @@ private void sendItemChangeToPlayer(EntityPlayerMP player) {
     }
 
     private void processList(ListIterator<Transaction<BlockSnapshot>> listIterator) {
+        final List<Transaction<BlockSnapshot>> reversed = new ArrayList<>();
+        final Map<Vector3i, Integer> remaining = new HashMap<>();
         while (listIterator.hasPrevious()) {
             Transaction<BlockSnapshot> transaction = listIterator.previous();
+            reversed.add(transaction);
+            remaining.merge(transaction.getOriginal().getPosition(), 1, Integer::sum);
+        }
+
+        // A position changed several times ends up with its oldest original, so the newer ones are skipped
+        // instead of paying for block and lighting updates that are overwritten right away
+        for (Transaction<BlockSnapshot> transaction : reversed) {
+            if (remaining.merge(transaction.getOriginal().getPosition(), -1, Integer::sum) > 0) {
+                continue;
+            }
             this.restoringBlocks = true;
             transaction.getOriginal().restore(true, false);
             this.restoringBlocks = false;
@@ -1020,9 +1135,6 @@ public boolean processSpawnEntity(Entity entity, Cause spawnCause) {
                 return false;
             }
 
-            org.spongepowered.api.event.Event event = null;
-            List<Entity> entitiesToSpawn = Lists.newArrayList(entity);
-            ImmutableList<EntitySnapshot> entitySnapshots = ImmutableList.of(entity.createSnapshot());
             EntityLivingBase entityLiving = null;
             net.minecraft.entity.Entity nonLivingEntity = null;
             if (this.currentTickEntity instanceof EntityLivingBase) {
@@ -1030,17 +1142,33 @@ public boolean processSpawnEntity(Entity entity, Cause spawnCause) {
             } else if (this.currentTickEntity != null) {
                 nonLivingEntity = (net.minecraft.entity.Entity) this.currentTickEntity;
             }
+            final Class<? extends SpawnEntityEvent> eventType;
             if (entityIn instanceof EntityItem) {
                 if ((nonLivingEntity != null && nonLivingEntity.isDead) || entityIn instanceof EntityXPOrb || (entityLiving != null && (entityLiving.getHealth() <= 0 || entityLiving.isDead))) {
-                    event = SpongeEventFactory.createDropItemEventDestruct(cause, entitiesToSpawn, entitySnapshots, this.getWorld());
+                    eventType = DropItemEvent.Destruct.class;
                 } else {
-                    event = SpongeEventFactory.createDropItemEventDispense(cause, entitiesToSpawn, entitySnapshots, this.getWorld());
+                    eventType = DropItemEvent.Dispense.class;
                 }
             } else {
-                event = SpongeEventFactory.createSpawnEntityEvent(cause, entitiesToSpawn, entitySnapshots, this.getWorld());
+                eventType = SpawnEntityEvent.class;
             }
 
-            if (!SpongeImpl.postEvent(event)) {
+            boolean cancelled = false;
+            if (SpongeImpl.hasListener(eventType)) {
+                org.spongepowered.api.event.Event event;
+                List<Entity> entitiesToSpawn = Lists.newArrayList(entity);
+                ImmutableList<EntitySnapshot> entitySnapshots = ImmutableList.of(entity.createSnapshot());
+                if (eventType == DropItemEvent.Destruct.class) {
+                    event = SpongeEventFactory.createDropItemEventDestruct(cause, entitiesToSpawn, entitySnapshots, this.getWorld());
+                } else if (eventType == DropItemEvent.Dispense.class) {
+                    event = SpongeEventFactory.createDropItemEventDispense(cause, entitiesToSpawn, entitySnapshots, this.getWorld());
+                } else {
+                    event = SpongeEventFactory.createSpawnEntityEvent(cause, entitiesToSpawn, entitySnapshots, this.getWorld());
+                }
+                cancelled = SpongeImpl.postEvent(event);
+            }
+
+            if (!cancelled) {
                 if (entityIn instanceof EntityWeatherEffect) {
                     return addWeatherEffect(entityIn, cause);
                 }
@@ -1358,4 +1486,26 @@ public void trackEntityOwner(Entity entity) {
             }
         }
     }
+
+    /**
+     * Reusable transaction lists used while processing block captures. These
+     * are never handed to events directly, events receive an immutable copy.
+     */
+    private static final class BlockCaptureBuffers {
+
+        final List<Transaction<BlockSnapshot>> breakTransactions = new ArrayList<>();
+        final List<Transaction<BlockSnapshot>> modifyTransactions = new ArrayList<>();
+        final List<Transaction<BlockSnapshot>> placeTransactions = new ArrayList<>();
+        final List<Transaction<BlockSnapshot>> decayTransactions = new ArrayList<>();
+        final List<Transaction<BlockSnapshot>> multiTransactions = new ArrayList<>();
+
+        void clear() {
+            this.breakTransactions.clear();
+            this.modifyTransactions.clear();
+            this.placeTransactions.clear();
+            this.decayTransactions.clear();
+            this.multiTransactions.clear();
+        }
+
+    }
 }
@@ -95,11 +95,15 @@ public static final class Cache {
 
         private final List<RegisteredListener<?>> listeners;
         private final EnumMap<Order, List<RegisteredListener<?>>> listenersByOrder;
+        private final RegisteredListener<?>[] listenerArray;
+        private final RegisteredListener<?>[][] listenerArraysByOrder;
 
         private static final Order[] ORDERS = Order.values();
+        private static final RegisteredListener<?>[] EMPTY = new RegisteredListener<?>[0];
 
         Cache(List<RegisteredListener<?>> listeners) {
             this.listeners = listeners;
+            this.listenerArray = listeners.isEmpty() ? EMPTY : listeners.toArray(new RegisteredListener<?>[listeners.size()]);
 
             this.listenersByOrder = Maps.newEnumMap(Order.class);
             for (Order order : ORDERS) {
@@ -108,6 +112,12 @@ public static final class Cache {
             for (RegisteredListener<?> handler : listeners) {
                 this.listenersByOrder.get(handler.getOrder()).add(handler);
             }
+            this.listenerArraysByOrder = new RegisteredListener<?>[ORDERS.length][];
+            for (Order order : ORDERS) {
+                List<RegisteredListener<?>> orderListeners = this.listenersByOrder.get(order);
+                this.listenerArraysByOrder[order.ordinal()] =
+                        orderListeners.isEmpty() ? EMPTY : orderListeners.toArray(new RegisteredListener<?>[orderListeners.size()]);
+            }
         }
 
         public List<RegisteredListener<?>> getListeners() {
@@ -118,6 +128,14 @@ public List<RegisteredListener<?>> getListenersByOrder(Order order) {
             return this.listenersByOrder.get(checkNotNull(order, "order"));
         }
 
+        RegisteredListener<?>[] getListenerArray() {
+            return this.listenerArray;
+        }
+
+        RegisteredListener<?>[] getListenerArrayByOrder(Order order) {
+            return this.listenerArraysByOrder[checkNotNull(order, "order").ordinal()];
+        }
+
     }
 
 }
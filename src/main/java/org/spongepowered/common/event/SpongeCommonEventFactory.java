@@ -529,8 +529,13 @@ private static void handleCustomSlot(EntityPlayerMP player, List<SlotTransaction
     }
 
     @SuppressWarnings("unchecked")
+    @Nullable
     public static CollideEntityEvent callCollideEntityEvent(net.minecraft.world.World world, @Nullable net.minecraft.entity.Entity sourceEntity,
                                                             List<net.minecraft.entity.Entity> entities) {
+        if (!SpongeImpl.hasListener(CollideEntityEvent.class)) {
+            return null;
+        }
+
         IMixinWorld spongeWorld = (IMixinWorld) world;
         CauseTracker causeTracker = spongeWorld.getCauseTracker();
         ImmutableList<Entity> originalEntities = ImmutableList.copyOf((List<Entity>) (List<?>) entities);
@@ -688,9 +693,12 @@ public static boolean handleCollideBlockEvent(Block block, net.minecraft.world.W
             }
         }
 
-        // TODO: Add target side support
-        CollideBlockEvent event = SpongeEventFactory.createCollideBlockEvent(cause, (BlockState) state, new Location<World>((World) world, VecHelper.toVector(pos)), direction);
-        boolean cancelled = SpongeImpl.postEvent(event);
+        boolean cancelled = false;
+        if (SpongeImpl.hasListener(CollideBlockEvent.class)) {
+            // TODO: Add target side support
+            CollideBlockEvent event = SpongeEventFactory.createCollideBlockEvent(cause, (BlockState) state, new Location<World>((World) world, VecHelper.toVector(pos)), direction);
+            cancelled = SpongeImpl.postEvent(event);
+        }
         if (!cancelled) {
             IMixinEntity spongeEntity = (IMixinEntity) entity;
             if (!pos.equals(spongeEntity.getLastCollidedBlockPos())) {
@@ -707,6 +715,20 @@ public static boolean handleCollideBlockEvent(Block block, net.minecraft.world.W
     public static boolean handleCollideImpactEvent(net.minecraft.entity.Entity projectile, @Nullable ProjectileSource projectileSource,
             MovingObjectPosition movingObjectPosition) {
         MovingObjectType movingObjectType = movingObjectPosition.typeOfHit;
+        if (movingObjectType == MovingObjectType.BLOCK && !SpongeImpl.hasListener(CollideBlockEvent.Impact.class)) {
+            // Nothing can cancel the impact, only track the impact block
+            final CauseTracker causeTracker = ((IMixinWorld) projectile.worldObj).getCauseTracker();
+            if (causeTracker.hasNotifier()) {
+                BlockPos targetPos = new BlockPos(movingObjectPosition.hitVec);
+                IMixinChunk spongeChunk = (IMixinChunk) projectile.worldObj.getChunkFromBlockCoords(targetPos);
+                spongeChunk.addTrackedBlockPosition(projectile.worldObj.getBlockState(movingObjectPosition.getBlockPos()).getBlock(), targetPos,
+                        causeTracker.getCurrentNotifier().get(), PlayerTracker.Type.NOTIFIER);
+            }
+            return false;
+        } else if (movingObjectType != MovingObjectType.BLOCK && !SpongeImpl.hasListener(CollideEntityEvent.Impact.class)) {
+            return false;
+        }
+
         Cause cause = Cause.source(projectile).named("ProjectileSource", projectileSource == null ? ProjectileSource.UNKNOWN : projectileSource).build();
         IMixinWorld spongeWorld = (IMixinWorld) projectile.worldObj;
         final CauseTracker causeTracker = spongeWorld.getCauseTracker();
@@ -749,6 +771,17 @@ public static void handleEntityMovement(net.minecraft.entity.Entity entity) {
         if (entity instanceof Player) {
             return; // this is handled elsewhere
         }
+        final Class<? extends DisplaceEntityEvent.Move> eventType;
+        if (entity instanceof Humanoid) {
+            eventType = DisplaceEntityEvent.Move.TargetHumanoid.class;
+        } else if (entity instanceof Living) {
+            eventType = DisplaceEntityEvent.Move.TargetLiving.class;
+        } else {
+            eventType = DisplaceEntityEvent.Move.class;
+        }
+        if (!SpongeImpl.hasListener(eventType)) {
+            return;
+        }
         if (entity.lastTickPosX != entity.posX || entity.lastTickPosY != entity.posY || entity.lastTickPosZ != entity.posZ
             || entity.rotationPitch != entity.prevRotationPitch || entity.rotationYaw != entity.prevRotationYaw) {
             // yes we have a move event.
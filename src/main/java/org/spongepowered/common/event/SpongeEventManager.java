@@ -27,9 +27,6 @@
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
@@ -52,8 +49,10 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import javax.inject.Inject;
@@ -72,40 +71,72 @@ public class SpongeEventManager implements EventManager {
     private final Set<Object> registeredListeners = Sets.newHashSet();
 
     /**
-     * A cache of all the handlers for an event type for quick event posting.
-     * <p>The cache is currently entirely invalidated if handlers are added or
-     * removed.</p>
+     * The dispatch table for every event type that has been posted or queried,
+     * each entry holding a copy-on-write snapshot of its handlers.
+     * <p>Entries are created once per event type. Registering or unregistering
+     * handlers only rebakes the entries of the affected event types.</p>
      */
-    private final LoadingCache<Class<? extends Event>, RegisteredListener.Cache> handlersCache =
-            CacheBuilder.newBuilder().build(new CacheLoader<Class<? extends Event>, RegisteredListener.Cache>() {
-                @Override
-                public RegisteredListener.Cache load(Class<? extends Event> eventClass) throws Exception {
-                    return bakeHandlers(eventClass);
-                }
-            });
+    private final Map<Class<?>, EventDispatch> dispatchByEvent = new ConcurrentHashMap<>();
+
+    /**
+     * A lock-free table of whether an event type has any listeners, used to
+     * skip constructing events nobody listens to.
+     * <p>The table is replaced whenever handlers are registered or
+     * unregistered. Unlike the dispatch table it never bakes handlers, so
+     * event types that are only queried cost a single flag.</p>
+     */
+    private volatile ListenerFlags listenerFlags = new ListenerFlags(Collections.<Class<?>>emptySet());
 
     @Inject
     public SpongeEventManager(PluginManager pluginManager) {
         this.pluginManager = checkNotNull(pluginManager, "pluginManager");
     }
 
-    RegisteredListener.Cache bakeHandlers(Class<?> rootEvent) {
-        List<RegisteredListener<?>> handlers = Lists.newArrayList();
-        @SuppressWarnings({"unchecked", "rawtypes"})
-        Set<Class<?>> types = (Set) TypeToken.of(rootEvent).getTypes().rawTypes();
-
-        synchronized (this.lock) {
-            for (Class<?> type : types) {
+    private EventDispatch getDispatch(Class<?> eventClass) {
+        EventDispatch dispatch = this.dispatchByEvent.get(eventClass);
+        if (dispatch == null) {
+            Set<Class<?>> types = Sets.newHashSet();
+            for (Class<?> type : TypeToken.of(eventClass).getTypes().rawTypes()) {
                 if (Event.class.isAssignableFrom(type)) {
-                    handlers.addAll(this.handlersByEvent.get(type));
+                    types.add(type);
+                }
+            }
+
+            synchronized (this.lock) {
+                dispatch = this.dispatchByEvent.get(eventClass);
+                if (dispatch == null) {
+                    dispatch = new EventDispatch(types);
+                    dispatch.cache = bakeHandlers(dispatch.types);
+                    this.dispatchByEvent.put(eventClass, dispatch);
                 }
             }
         }
+        return dispatch;
+    }
+
+    // Must be called while holding the lock
+    private RegisteredListener.Cache bakeHandlers(Set<Class<?>> types) {
+        List<RegisteredListener<?>> handlers = Lists.newArrayList();
+        for (Class<?> type : types) {
+            handlers.addAll(this.handlersByEvent.get(type));
+        }
 
         Collections.sort(handlers);
         return new RegisteredListener.Cache(handlers);
     }
 
+    // Must be called while holding the lock
+    private void rebakeHandlers(Set<Class<?>> changedTypes) {
+        for (EventDispatch dispatch : this.dispatchByEvent.values()) {
+            for (Class<?> changedType : changedTypes) {
+                if (dispatch.types.contains(changedType)) {
+                    dispatch.cache = bakeHandlers(dispatch.types);
+                    break;
+                }
+            }
+        }
+    }
+
     private static boolean isValidHandler(Method method) {
         int modifiers = method.getModifiers();
         if (Modifier.isStatic(modifiers) || !Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers)
@@ -124,16 +155,17 @@ private void register(RegisteredListener<?> handler) {
 
     private void register(List<RegisteredListener<?>> handlers) {
         synchronized (this.lock) {
-            boolean changed = false;
+            Set<Class<?>> changedTypes = Sets.newHashSet();
 
             for (RegisteredListener<?> handler : handlers) {
                 if (this.handlersByEvent.put(handler.getEventClass(), handler)) {
-                    changed = true;
+                    changedTypes.add(handler.getEventClass());
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
+            if (!changedTypes.isEmpty()) {
+                rebakeHandlers(changedTypes);
+                this.listenerFlags = new ListenerFlags(this.handlersByEvent.keySet());
             }
         }
     }
@@ -217,19 +249,20 @@ public <T extends Event> void registerListener(Object plugin, Class<T> eventClas
 
     private void unregister(Predicate<RegisteredListener<?>> unregister) {
         synchronized (this.lock) {
-            boolean changed = false;
+            Set<Class<?>> changedTypes = Sets.newHashSet();
 
             Iterator<RegisteredListener<?>> itr = this.handlersByEvent.values().iterator();
             while (itr.hasNext()) {
                 RegisteredListener<?> handler = itr.next();
                 if (unregister.test(handler)) {
                     itr.remove();
-                    changed = true;
+                    changedTypes.add(handler.getEventClass());
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
+            if (!changedTypes.isEmpty()) {
+                rebakeHandlers(changedTypes);
+                this.listenerFlags = new ListenerFlags(this.handlersByEvent.keySet());
             }
         }
     }
@@ -247,12 +280,26 @@ public void unregisterPluginListeners(Object pluginObj) {
         unregister(handler -> plugin.equals(handler.getPlugin()));
     }
 
+    /**
+     * Gets whether any listener is registered that would receive an event of
+     * the given type, allowing callers to skip constructing the event.
+     *
+     * <p>Platforms which dispatch events to additional handlers must override
+     * this to account for them.</p>
+     *
+     * @param eventClass The event type
+     * @return True if the event has at least one listener
+     */
+    public boolean hasListener(Class<? extends Event> eventClass) {
+        return this.listenerFlags.hasListener(checkNotNull(eventClass, "eventClass"));
+    }
+
     protected RegisteredListener.Cache getHandlerCache(Event event) {
-        return this.handlersCache.getUnchecked(checkNotNull(event, "event").getClass());
+        return getDispatch(checkNotNull(event, "event").getClass()).cache;
     }
 
     @SuppressWarnings("unchecked")
-    protected static boolean post(Event event, List<RegisteredListener<?>> handlers) {
+    protected static boolean post(Event event, RegisteredListener<?>[] handlers) {
         for (@SuppressWarnings("rawtypes") RegisteredListener handler : handlers) {
             try {
                 handler.handle(event);
@@ -266,7 +313,7 @@ protected static boolean post(Event event, List<RegisteredListener<?>> handlers)
 
     @Override
     public boolean post(Event event) {
-        return post(event, getHandlerCache(event).getListeners());
+        return post(event, getHandlerCache(event).getListenerArray());
     }
     
     public boolean post(Event event, boolean allowClientThread) {
@@ -274,7 +321,44 @@ public boolean post(Event event, boolean allowClientThread) {
     }
 
     public boolean post(Event event, Order order) {
-        return post(event, getHandlerCache(event).getListenersByOrder(order));
+        return post(event, getHandlerCache(event).getListenerArrayByOrder(order));
+    }
+
+    private static final class EventDispatch {
+
+        final Set<Class<?>> types;
+        volatile RegisteredListener.Cache cache;
+
+        EventDispatch(Set<Class<?>> types) {
+            this.types = types;
+        }
+
+    }
+
+    private static final class ListenerFlags {
+
+        private final Class<?>[] listenedTypes;
+        private final Map<Class<?>, Boolean> flags = new ConcurrentHashMap<>();
+
+        ListenerFlags(Set<Class<?>> listenedTypes) {
+            this.listenedTypes = listenedTypes.toArray(new Class<?>[listenedTypes.size()]);
+        }
+
+        boolean hasListener(Class<?> eventClass) {
+            Boolean flag = this.flags.get(eventClass);
+            if (flag == null) {
+                flag = Boolean.FALSE;
+                for (Class<?> type : this.listenedTypes) {
+                    if (type.isAssignableFrom(eventClass)) {
+                        flag = Boolean.TRUE;
+                        break;
+                    }
+                }
+                this.flags.put(eventClass, flag);
+            }
+            return flag;
+        }
+
     }
 
 }
@@ -28,13 +28,14 @@
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.BlockPos;
 import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.util.Direction;
 import org.spongepowered.api.world.Chunk;
 import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -42,9 +43,7 @@ public interface IMixinChunk {
 
     Cause getCurrentPopulateCause();
 
-    Map<Short, PlayerTracker> getTrackedShortPlayerPositions();
-
-    Map<Integer, PlayerTracker> getTrackedIntPlayerPositions();
+    PlayerTrackerMap getTrackedBlockPositions();
 
     Optional<User> getBlockOwner(BlockPos pos);
 
@@ -58,10 +57,14 @@ public interface IMixinChunk {
 
     void addTrackedBlockPosition(Block block, BlockPos pos, User user, PlayerTracker.Type trackerType);
 
-    void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPlayerPositions);
-
-    void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPlayerPositions);
-
     void setNeighbor(Direction direction, Chunk neighbor);
 
+    /**
+     * Gets a read-only view of the entities in this chunk, iterating its
+     * vertical sections in order without copying them.
+     *
+     * @return The entities in this chunk
+     */
+    Iterable<Entity> getEntitiesView();
+
 }
@@ -32,6 +32,15 @@ public interface IMixinText {
 
     IChatComponent toComponent();
 
+    /**
+     * Gets the component backing this text without copying it. The returned
+     * component is shared between all callers and must not be modified, use
+     * {@link #toComponent()} if a mutable copy is needed.
+     *
+     * @return The shared component
+     */
+    IChatComponent getSharedComponent();
+
     String toPlain();
 
     String toJson();
@@ -29,14 +29,20 @@
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.BlockPos;
 import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.api.block.tileentity.TileEntity;
+import org.spongepowered.api.block.tileentity.TileEntityType;
 import org.spongepowered.api.data.Transaction;
+import org.spongepowered.api.entity.Entity;
+import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.common.config.SpongeConfig;
 import org.spongepowered.common.event.CauseTracker;
 import org.spongepowered.common.world.CaptureType;
+import org.spongepowered.common.world.TrackedUserCache;
 import org.spongepowered.common.world.gen.SpongeChunkProvider;
 import org.spongepowered.common.world.gen.SpongeWorldGenerator;
 
+import java.util.Collection;
 import java.util.List;
 
 import javax.annotation.Nullable;
@@ -47,6 +53,51 @@ public interface IMixinWorld {
 
     CauseTracker getCauseTracker();
 
+    TrackedUserCache getTrackedUserCache();
+
+    /**
+     * Gets a read-only view of the loaded entities. Unlike
+     * {@link org.spongepowered.api.world.World#getEntities()} nothing is
+     * copied, so the view must not be iterated while entities are spawned
+     * or removed. Use its stream for filtered queries with early exit.
+     *
+     * @return The loaded entities
+     */
+    Collection<Entity> getEntitiesView();
+
+    /**
+     * Gets a read-only view of the loaded entities of a type, backed by an
+     * index that is updated as entities are added and removed.
+     *
+     * @param type The entity type
+     * @return The loaded entities of the type
+     */
+    Collection<Entity> getEntitiesView(EntityType type);
+
+    /**
+     * Gets a read-only view of the loaded tile entities, see
+     * {@link #getEntitiesView()}.
+     *
+     * @return The loaded tile entities
+     */
+    Collection<TileEntity> getTileEntitiesView();
+
+    /**
+     * Gets a read-only view of the loaded tile entities of a type.
+     *
+     * @param type The tile entity type
+     * @return The loaded tile entities of the type
+     */
+    Collection<TileEntity> getTileEntitiesView(TileEntityType type);
+
+    /**
+     * Called when a tile entity of this world is invalidated, so it is no
+     * longer returned by {@link #getTileEntitiesView(TileEntityType)}.
+     *
+     * @param tileEntity The invalidated tile entity
+     */
+    void onTileEntityInvalidated(TileEntity tileEntity);
+
     BlockSnapshot createSpongeBlockSnapshot(IBlockState state, IBlockState extended, BlockPos pos, int updateFlag);
 
     void updateWorldGenerator();
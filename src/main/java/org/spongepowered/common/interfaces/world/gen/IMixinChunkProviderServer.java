@@ -41,4 +41,14 @@ public interface IMixinChunkProviderServer {
     @Nullable
     Chunk getChunkIfLoaded(int x, int z);
 
+    /**
+     * Gets whether the chunk at the desired position is saved in the
+     * region files of the world.
+     *
+     * @param x The chunk x position
+     * @param z The chunk z position
+     * @return True if the chunk is saved
+     */
+    boolean isChunkSaved(int x, int z);
+
 }
@@ -26,7 +26,13 @@
 
 import static com.google.common.base.Preconditions.*;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TIntIterator;
 import gnu.trove.set.TIntSet;
 import gnu.trove.set.hash.TIntHashSet;
 import org.spongepowered.api.item.ItemType;
@@ -51,29 +57,50 @@
 import org.spongepowered.common.item.inventory.query.strategy.expression.ExpressionStrategy;
 
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
 
 public class Query<TInventory, TStack> {
     
     public static enum Type {
         
-        CLASS("class", ClassStrategy.class),
-        TYPE("type", ItemTypeStrategy.class),
-        STACK("stack", ItemStackStrategy.class),
-        PROPERTIES("property", PropertyStrategy.class),
-        NAME("name", NameStrategy.class),
-        EXPRESSION("expr", ExpressionStrategy.class),
-        GENERIC("args", GenericStrategy.class);
+        CLASS("class", ClassStrategy.class, ClassStrategy::new, true),
+        TYPE("type", ItemTypeStrategy.class, ItemTypeStrategy::new, true),
+        STACK("stack", ItemStackStrategy.class, ItemStackStrategy::new, false),
+        PROPERTIES("property", PropertyStrategy.class, PropertyStrategy::new, true),
+        NAME("name", NameStrategy.class, NameStrategy::new, true),
+        EXPRESSION("expr", ExpressionStrategy.class, ExpressionStrategy::new, false),
+        GENERIC("args", GenericStrategy.class, GenericStrategy::new, false);
         
         private final String key;
         
         private final Class<? extends QueryStrategy<?, ?, ?>> defaultStrategyClass;
 
+        private final Supplier<? extends QueryStrategy<?, ?, ?>> defaultStrategyFactory;
+
+        /**
+         * Whether compiled strategies of this type can be shared, which
+         * requires immutable arguments
+         */
+        private final boolean cacheable;
+
         @SuppressWarnings({ "rawtypes", "unchecked" })
-        private Type(String key, Class<? extends QueryStrategy> defaultStrategyClass) {
+        private Type(String key, Class<? extends QueryStrategy> defaultStrategyClass, Supplier<? extends QueryStrategy<?, ?, ?>> defaultStrategyFactory,
+                boolean cacheable) {
             this.key = key;
             this.defaultStrategyClass = (Class<? extends QueryStrategy<?, ?, ?>>) defaultStrategyClass;
+            this.defaultStrategyFactory = defaultStrategyFactory;
+            this.cacheable = cacheable;
         }
 
         public String getKey() {
@@ -92,8 +119,31 @@ public String getKey() {
         
     }
     
-    private static final Map<String, Class<? extends QueryStrategy<?, ?, ?>>> strategies
-            = Maps.<String, Class<? extends QueryStrategy<?, ?, ?>>>newHashMap();
+    private static final Map<String, Supplier<? extends QueryStrategy<?, ?, ?>>> strategies
+            = Maps.<String, Supplier<? extends QueryStrategy<?, ?, ?>>>newHashMap();
+
+    /**
+     * Compiled strategies of the default types, keyed by the type and the
+     * query arguments
+     */
+    private static final Cache<List<Object>, QueryStrategy<?, ?, ?>> compiledStrategies = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    /**
+     * Strategies handed out from the compiled strategy cache, compared by
+     * identity. Only their structural matches are worth caching.
+     */
+    private static final Set<QueryStrategy<?, ?, ?>> sharedStrategies = Sets.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
+    /**
+     * Matches of structural strategies per root lens. Matches are stored as
+     * child index paths from the root, since lenses reference their parents
+     * and would otherwise keep the weak root keys alive.
+     */
+    private static final Cache<Lens<?, ?>, Map<QueryStrategy<?, ?, ?>, int[][]>> structuralMatches = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
     
     private static ResultAdapterProvider<?, ?> defaultResultProvider;
     
@@ -126,8 +176,71 @@ public Inventory execute(ResultAdapterProvider<TInventory, TStack> resultProvide
         if (this.strategy.matches(this.lens, null, this.inventory)) {
             return this.adapter;
         }
-        
-        return this.toResult(resultProvider, this.depthFirstSearch(this.lens));
+
+        if (this.strategy.isStructural() && Query.sharedStrategies.contains(this.strategy)) {
+            return this.toResult(resultProvider, this.getStructuralMatches());
+        }
+
+        TIntSet candidates = this.strategy.getCandidateSlots(this.inventory);
+        if (candidates != null && candidates.isEmpty()) {
+            return new EmptyInventoryImpl(this.adapter);
+        }
+        return this.toResult(resultProvider, this.depthFirstSearch(this.lens, candidates));
+    }
+
+    private MutableLensSet<TInventory, TStack> getStructuralMatches() {
+        Map<QueryStrategy<?, ?, ?>, int[][]> matchesByStrategy;
+        try {
+            matchesByStrategy = Query.structuralMatches.get(this.lens, () -> Collections.synchronizedMap(new WeakHashMap<>()));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+
+        int[][] paths = matchesByStrategy.get(this.strategy);
+        if (paths == null) {
+            MutableLensSet<TInventory, TStack> matches = this.depthFirstSearch(this.lens, null);
+            Map<Lens<TInventory, TStack>, int[]> index = new IdentityHashMap<>();
+            index.put(this.lens, new int[0]);
+            Query.indexPaths(this.lens, new int[0], index);
+            paths = new int[matches.size()][];
+            int i = 0;
+            for (Lens<TInventory, TStack> match : matches) {
+                int[] path = index.get(match);
+                if (path == null) {
+                    // Not reachable through the children of the root, so it can't be cached
+                    return matches;
+                }
+                paths[i++] = path;
+            }
+            matchesByStrategy.put(this.strategy, paths);
+            return matches;
+        }
+
+        // Result adapters may hold on to the set, so every execution gets its own
+        MutableLensSet<TInventory, TStack> matches = new MutableLensSetImpl<TInventory, TStack>(true);
+        for (int[] path : paths) {
+            Lens<TInventory, TStack> match = this.lens;
+            for (int childIndex : path) {
+                match = match.getChildren().get(childIndex);
+            }
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    private static <TInventory, TStack> void indexPaths(Lens<TInventory, TStack> lens, int[] path,
+            Map<Lens<TInventory, TStack>, int[]> index) {
+        List<Lens<TInventory, TStack>> children = lens.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            Lens<TInventory, TStack> child = children.get(i);
+            if (child == null || index.containsKey(child)) {
+                continue;
+            }
+            int[] childPath = Arrays.copyOf(path, path.length + 1);
+            childPath[path.length] = i;
+            index.put(child, childPath);
+            Query.indexPaths(child, childPath, index);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -147,15 +260,19 @@ private Inventory toResult(ResultAdapterProvider<TInventory, TStack> resultProvi
         return ((ResultAdapterProvider<TInventory, TStack>)Query.defaultResultProvider).getResultAdapter(this.inventory, matches);
     }
 
-    private MutableLensSet<TInventory, TStack> depthFirstSearch(Lens<TInventory, TStack> lens) {
+    private MutableLensSet<TInventory, TStack> depthFirstSearch(Lens<TInventory, TStack> lens, @Nullable TIntSet candidates) {
         MutableLensSet<TInventory, TStack> matches = new MutableLensSetImpl<TInventory, TStack>(true);
         
         for (Lens<TInventory, TStack> child : lens.getChildren()) {
             if (child == null) {
                 continue;
             }
+            if (candidates != null && !Query.containsAny(child.getSlots(), candidates)) {
+                // Nothing below this lens can match
+                continue;
+            }
             if (child.getChildren().size() > 0) {
-                matches.addAll(this.depthFirstSearch(child));
+                matches.addAll(this.depthFirstSearch(child, candidates));
             } 
             if (this.strategy.matches(child, lens, this.inventory)) {
                 matches.add(child);
@@ -197,6 +314,15 @@ private MutableLensSet<TInventory, TStack> reduce(Lens<TInventory, TStack> lens,
 //        return true;
 //    }
 
+    private static boolean containsAny(TIntSet slots, TIntSet candidates) {
+        for (TIntIterator iterator = candidates.iterator(); iterator.hasNext();) {
+            if (slots.contains(iterator.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private TIntSet getSlots(Collection<Lens<TInventory, TStack>> lenses) {
         TIntSet slots = new TIntHashSet();
         for (Lens<TInventory, TStack> lens : lenses) {
@@ -206,62 +332,91 @@ private TIntSet getSlots(Collection<Lens<TInventory, TStack>> lenses) {
     }
 
     public static <TInventory, TStack> Query<TInventory, TStack> compile(InventoryAdapter<TInventory, TStack> adapter, Class<?>... types) {
-        QueryStrategy<TInventory, TStack, Class<?>> strategy = Query.<TInventory, TStack, Class<?>>getStrategy(Type.CLASS).with(types);
+        QueryStrategy<TInventory, TStack, Class<?>> strategy = Query.<TInventory, TStack, Class<?>>getCompiledStrategy(Type.CLASS, types);
         return new Query<TInventory, TStack>(adapter, strategy);
     }
 
     public static <TInventory, TStack> Query<TInventory, TStack> compile(InventoryAdapter<TInventory, TStack> adapter, ItemType... types) {
-        QueryStrategy<TInventory, TStack, ItemType> strategy = Query.<TInventory, TStack, ItemType>getStrategy(Type.TYPE).with(types);
+        QueryStrategy<TInventory, TStack, ItemType> strategy = Query.<TInventory, TStack, ItemType>getCompiledStrategy(Type.TYPE, types);
         return new Query<TInventory, TStack>(adapter, strategy);
     }
 
     public static <TInventory, TStack> Query<TInventory, TStack> compile(InventoryAdapter<TInventory, TStack> adapter, ItemStack... types) {
-        QueryStrategy<TInventory, TStack, ItemStack> strategy = Query.<TInventory, TStack, ItemStack>getStrategy(Type.STACK).with(types);
+        QueryStrategy<TInventory, TStack, ItemStack> strategy = Query.<TInventory, TStack, ItemStack>getCompiledStrategy(Type.STACK, types);
         return new Query<TInventory, TStack>(adapter, strategy);
     }
 
     public static <TInventory, TStack> Query<TInventory, TStack> compile(InventoryAdapter<TInventory, TStack> adapter, InventoryProperty<?, ?>... props) {
-        QueryStrategy<TInventory, TStack, InventoryProperty<?, ?>> strategy = Query.<TInventory, TStack, InventoryProperty<?, ?>>getStrategy(Type.PROPERTIES).with(props);
+        QueryStrategy<TInventory, TStack, InventoryProperty<?, ?>> strategy = Query.<TInventory, TStack, InventoryProperty<?, ?>>getCompiledStrategy(Type.PROPERTIES, props);
         return new Query<TInventory, TStack>(adapter, strategy);
     }
 
     public static <TInventory, TStack> Query<TInventory, TStack> compile(InventoryAdapter<TInventory, TStack> adapter, Translation... names) {
-        QueryStrategy<TInventory, TStack, Translation> strategy = Query.<TInventory, TStack, Translation>getStrategy(Type.NAME).with(names);
+        QueryStrategy<TInventory, TStack, Translation> strategy = Query.<TInventory, TStack, Translation>getCompiledStrategy(Type.NAME, names);
         return new Query<TInventory, TStack>(adapter, strategy);
     }
 
     public static <TInventory, TStack> Query<TInventory, TStack> compile(InventoryAdapter<TInventory, TStack> adapter, String... expression) {
-        QueryStrategy<TInventory, TStack, String> strategy = Query.<TInventory, TStack, String>getStrategy(Type.EXPRESSION).with(expression);
+        QueryStrategy<TInventory, TStack, String> strategy = Query.<TInventory, TStack, String>getCompiledStrategy(Type.EXPRESSION, expression);
         return new Query<TInventory, TStack>(adapter, strategy);
     }
 
     public static <TInventory, TStack> Query<TInventory, TStack> compile(InventoryAdapter<TInventory, TStack> adapter, Object... args) {
-        QueryStrategy<TInventory, TStack, Object> strategy = Query.<TInventory, TStack, Object>getStrategy(Type.GENERIC).with(args);
+        QueryStrategy<TInventory, TStack, Object> strategy = Query.<TInventory, TStack, Object>getCompiledStrategy(Type.GENERIC, args);
         return new Query<TInventory, TStack>(adapter, strategy);
     }
     
+    /**
+     * Gets a strategy of the given type which was compiled with the given
+     * arguments. Strategies of cacheable types are shared between queries
+     * with equal arguments and must therefore not be reconfigured.
+     */
+    @SuppressWarnings("unchecked")
+    public static <TInventory, TStack, TArgs> QueryStrategy<TInventory, TStack, TArgs> getCompiledStrategy(Type type, TArgs[] args) {
+        if (!type.cacheable || Query.strategies.get(type.getKey()) != type.defaultStrategyFactory) {
+            return Query.<TInventory, TStack, TArgs>getStrategy(type).with(args);
+        }
+        List<Object> key = ImmutableList.builder().add(type).addAll(Arrays.asList(args)).build();
+        try {
+            return (QueryStrategy<TInventory, TStack, TArgs>) Query.compiledStrategies.get(key, () -> {
+                QueryStrategy<TInventory, TStack, TArgs> strategy = Query.<TInventory, TStack, TArgs>getStrategy(type).with(args);
+                Query.sharedStrategies.add(strategy);
+                return strategy;
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public static <TInventory, TStack, TArgs> QueryStrategy<TInventory, TStack, TArgs> getStrategy(Type type) {
         return Query.getStrategy(type.getKey());
     }
     
     public static <TInventory, TStack, TArgs> QueryStrategy<TInventory, TStack, TArgs> getStrategy(String key) {
         @SuppressWarnings("unchecked")
-        Class<? extends QueryStrategy<TInventory, TStack, TArgs>> strategyClass = (Class<? extends QueryStrategy<TInventory, TStack, TArgs>>) checkNotNull(Query.strategies.get(key), "The specified query strategy [%s], was not registered", key);
-        try {
-            return strategyClass.newInstance();
-        } catch (Exception ex) {
-            throw new InvalidQueryStrategyException("The query strategy class %s does not provide a noargs ctor", strategyClass); 
-        }
+        Supplier<? extends QueryStrategy<TInventory, TStack, TArgs>> strategyFactory = (Supplier<? extends QueryStrategy<TInventory, TStack, TArgs>>) checkNotNull(Query.strategies.get(key), "The specified query strategy [%s], was not registered", key);
+        return strategyFactory.get();
     }
     
     public static void registerStrategy(String key, Class<? extends QueryStrategy<?, ?, ?>> strategyClass) {
+        final Constructor<? extends QueryStrategy<?, ?, ?>> ctor;
         try {
-            @SuppressWarnings({ "unchecked", "unused" })
-            Constructor<QueryStrategy<?, ?, ?>> ctor = (Constructor<QueryStrategy<?, ?, ?>>) checkNotNull(strategyClass, "strategyClass").getConstructor();
+            ctor = checkNotNull(strategyClass, "strategyClass").getConstructor();
         } catch (Exception ex) {
             throw new InvalidQueryStrategyException("The query strategy class %s does not provide a noargs ctor", strategyClass); 
         }
-        Query.strategies.put(key, strategyClass);
+        Query.registerStrategy(key, () -> {
+            try {
+                return ctor.newInstance();
+            } catch (Exception ex) {
+                throw new InvalidQueryStrategyException("The query strategy class %s could not be instantiated", strategyClass);
+            }
+        });
+    }
+
+    public static void registerStrategy(String key, Supplier<? extends QueryStrategy<?, ?, ?>> strategyFactory) {
+        Query.strategies.put(key, checkNotNull(strategyFactory, "strategyFactory"));
+        Query.compiledStrategies.invalidateAll();
     }
     
     public static void setDefaultResultProvider(ResultAdapterProvider<?, ?> defaultResultProvider) {
@@ -270,7 +425,7 @@ public static void setDefaultResultProvider(ResultAdapterProvider<?, ?> defaultR
 
     private static void registerDefaultStrategies() {
         for (Type type : Query.Type.values()) {
-            Query.registerStrategy(type.getKey(), type.getDefaultStrategyClass());
+            Query.registerStrategy(type.getKey(), type.defaultStrategyFactory);
         }
     }
 
@@ -24,12 +24,39 @@
  */
 package org.spongepowered.common.item.inventory.query;
 
+import gnu.trove.set.TIntSet;
 import org.spongepowered.common.item.inventory.lens.Fabric;
 import org.spongepowered.common.item.inventory.lens.Lens;
 
+import javax.annotation.Nullable;
+
 public abstract class QueryStrategy<TInventory, TStack, TArgs> {
 
     public abstract QueryStrategy<TInventory, TStack, TArgs> with(TArgs[] args);
 
     public abstract boolean matches(Lens<TInventory, TStack> lens, Lens<TInventory, TStack> parent, Fabric<TInventory> inventory);
+
+    /**
+     * Gets whether this strategy only depends on the lens tree and not on
+     * the contents of the inventory, which allows its matches to be cached
+     * per root lens.
+     *
+     * @return True if the matches only depend on the lenses
+     */
+    public boolean isStructural() {
+        return false;
+    }
+
+    /**
+     * Gets the slots of the inventory which could be matched by this
+     * strategy. Lenses without any of these slots are not searched.
+     *
+     * @param inventory The inventory
+     * @return The candidate slots, or null if any slot could match
+     */
+    @Nullable
+    public TIntSet getCandidateSlots(Fabric<TInventory> inventory) {
+        return null;
+    }
+
 }
@@ -25,6 +25,9 @@
 package org.spongepowered.common.item.inventory.query.strategy;
 
 import com.google.common.collect.ImmutableSet;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.spongepowered.api.item.ItemType;
 import org.spongepowered.api.item.inventory.ItemStack;
 import org.spongepowered.common.item.inventory.lens.Fabric;
 import org.spongepowered.common.item.inventory.lens.Lens;
@@ -32,6 +35,7 @@
 import org.spongepowered.common.item.inventory.query.QueryStrategy;
 import org.spongepowered.common.item.inventory.util.ItemStackUtil;
 
+import java.util.HashSet;
 import java.util.Set;
 
 public class ItemStackStrategy<TInventory> extends QueryStrategy<TInventory, ItemStack, ItemStack> {
@@ -65,4 +69,25 @@ public boolean matches(Lens<TInventory, ItemStack> lens, Lens<TInventory, ItemSt
         return false;
     }
 
+    @Override
+    public TIntSet getCandidateSlots(Fabric<TInventory> inventory) {
+        if (this.stacks.isEmpty()) {
+            return null;
+        }
+
+        // Only slots holding the item of one of the stacks can match
+        Set<ItemType> types = new HashSet<>();
+        for (ItemStack candidate : this.stacks) {
+            types.add(candidate.getItem());
+        }
+        TIntSet slots = new TIntHashSet();
+        for (int i = 0; i < inventory.getSize(); i++) {
+            net.minecraft.item.ItemStack stack = inventory.getStack(i);
+            if (stack != null && types.contains((ItemType) stack.getItem())) {
+                slots.add(i);
+            }
+        }
+        return slots;
+    }
+
 }
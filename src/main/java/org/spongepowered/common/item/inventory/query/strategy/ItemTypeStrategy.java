@@ -25,6 +25,8 @@
 package org.spongepowered.common.item.inventory.query.strategy;
 
 import com.google.common.collect.ImmutableSet;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 import org.spongepowered.api.item.ItemType;
 import org.spongepowered.api.item.inventory.ItemStack;
 import org.spongepowered.common.item.inventory.lens.Fabric;
@@ -65,4 +67,20 @@ public boolean matches(Lens<TInventory, ItemStack> lens, Lens<TInventory, ItemSt
         return false;
     }
 
+    @Override
+    public TIntSet getCandidateSlots(Fabric<TInventory> inventory) {
+        if (this.types.isEmpty()) {
+            return null;
+        }
+
+        TIntSet slots = new TIntHashSet();
+        for (int i = 0; i < inventory.getSize(); i++) {
+            net.minecraft.item.ItemStack stack = inventory.getStack(i);
+            if (stack != null && this.types.contains((ItemType) stack.getItem())) {
+                slots.add(i);
+            }
+        }
+        return slots;
+    }
+
 }
@@ -39,6 +39,7 @@
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.common.interfaces.text.IMixinChatComponent;
 import org.spongepowered.common.interfaces.text.IMixinText;
+import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.common.text.action.SpongeClickAction;
 import org.spongepowered.common.text.action.SpongeHoverAction;
 import org.spongepowered.common.text.format.SpongeTextColor;
@@ -56,6 +57,9 @@ public abstract class MixinText implements IMixinText {
 
     private IChatComponent component;
     private String json;
+    private String plain;
+    private String legacyFormatting;
+    private String legacy;
 
     protected ChatComponentStyle createComponent() {
         throw new UnsupportedOperationException();
@@ -107,9 +111,18 @@ public IChatComponent toComponent() {
         return getHandle().createCopy(); // Mutable instances are not nice :(
     }
 
+    @Override
+    public IChatComponent getSharedComponent() {
+        return getHandle();
+    }
+
     @Override
     public String toPlain() {
-        return ((IMixinChatComponent) getHandle()).toPlain();
+        if (this.plain == null) {
+            this.plain = ((IMixinChatComponent) getHandle()).toPlain();
+        }
+
+        return this.plain;
     }
 
     @Override
@@ -123,12 +136,25 @@ public String toJson() {
 
     @Override
     public String getLegacyFormatting() {
-        return ((IMixinChatComponent) getHandle()).getLegacyFormatting();
+        if (this.legacyFormatting == null) {
+            this.legacyFormatting = ((IMixinChatComponent) getHandle()).getLegacyFormatting();
+        }
+
+        return this.legacyFormatting;
     }
 
     @Override
     public String toLegacy(char code) {
-        return ((IMixinChatComponent) getHandle()).toLegacy(code);
+        if (code != SpongeTexts.COLOR_CHAR) {
+            return ((IMixinChatComponent) getHandle()).toLegacy(code);
+        }
+
+        // Only the section sign form is requested repeatedly (scoreboards, names, bans)
+        if (this.legacy == null) {
+            this.legacy = ((IMixinChatComponent) getHandle()).toLegacy(code);
+        }
+
+        return this.legacy;
     }
 
 }
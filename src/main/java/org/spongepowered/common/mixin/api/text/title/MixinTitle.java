@@ -73,10 +73,10 @@ private List<S45PacketTitle> getPackets() {
                 this.packets.add(new S45PacketTitle(this.fadeIn.orElse(20), this.stay.orElse(60), this.fadeOut.orElse(20)));
             }
             if (this.subtitle.isPresent()) {
-                this.packets.add(new S45PacketTitle(S45PacketTitle.Type.SUBTITLE, ((IMixinText) this.subtitle.get()).toComponent()));
+                this.packets.add(new S45PacketTitle(S45PacketTitle.Type.SUBTITLE, ((IMixinText) this.subtitle.get()).getSharedComponent()));
             }
             if (this.title.isPresent()) {
-                this.packets.add(new S45PacketTitle(S45PacketTitle.Type.TITLE, ((IMixinText) this.title.get()).toComponent()));
+                this.packets.add(new S45PacketTitle(S45PacketTitle.Type.TITLE, ((IMixinText) this.title.get()).getSharedComponent()));
             }
         }
         return this.packets;
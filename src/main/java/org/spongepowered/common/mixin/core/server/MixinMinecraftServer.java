@@ -94,10 +94,12 @@
 import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
 import org.spongepowered.common.interfaces.world.IMixinWorldProvider;
 import org.spongepowered.common.interfaces.world.IMixinWorldSettings;
+import org.spongepowered.common.network.PacketBatcher;
 import org.spongepowered.common.profile.SpongeProfileManager;
 import org.spongepowered.common.registry.type.world.DimensionRegistryModule;
 import org.spongepowered.common.registry.type.world.WorldPropertyRegistryModule;
 import org.spongepowered.common.resourcepack.SpongeResourcePack;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.common.util.ServerUtils;
 import org.spongepowered.common.util.SpongeHooks;
@@ -105,7 +107,9 @@
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.SpongeDimensionType;
 import org.spongepowered.common.world.WorldMigrator;
+import org.spongepowered.common.world.gen.ChunkGenerationPipeline;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
+import org.spongepowered.common.world.storage.SpongePlayerDataHandler;
 import org.spongepowered.common.world.storage.WorldServerMultiAdapterWorldInfo;
 
 import java.io.DataInputStream;
@@ -318,9 +322,17 @@ public void shutdown(Text kickMessage) {
 
     @Inject(method = "stopServer()V", at = @At("HEAD"))
     public void onServerStopping(CallbackInfo ci) {
+        ChunkGenerationPipeline.onServerStopping();
         ((MinecraftServer) (Object) this).getPlayerProfileCache().save();
     }
 
+    @Inject(method = "stopServer()V", at = @At("RETURN"))
+    public void onServerStopped(CallbackInfo ci) {
+        // Player data is written asynchronously, make sure it is on disk before the server exits
+        SpongePlayerDataHandler.flush();
+        UserIndex.unload();
+    }
+
     /**
      * @author Zidane - June 15th, 2015
      * @author blood - December 23rd, 2015
@@ -853,6 +865,7 @@ public boolean unloadWorld(World world) {
                 e.printStackTrace();
             }
             finally {
+                ((IMixinWorld) worldServer).getTrackedUserCache().clear();
                 DimensionManager.setWorld(dim, null);
             }
 
@@ -1072,6 +1085,11 @@ public String toString() {
         return getClass().getSimpleName();
     }
 
+    @Inject(method = "tick", at = @At(value = "HEAD"))
+    public void onServerTickStart(CallbackInfo ci) {
+        ChunkGenerationPipeline.onTickStart();
+    }
+
     @Inject(method = "tick", at = @At(value = "RETURN"))
     public void onServerTick(CallbackInfo ci) {
         int lastAnimTick = StaticMixinHelper.lastAnimationPacketTick;
@@ -1083,6 +1101,9 @@ public void onServerTick(CallbackInfo ci) {
             Sponge.getEventManager().post(event);
         }
         StaticMixinHelper.lastAnimationPacketTick = 0;
+
+        PacketBatcher.flushPendingChannels();
+        ChunkGenerationPipeline.onTickEnd();
     }
 
     @Override
@@ -25,15 +25,26 @@
 package org.spongepowered.common.mixin.core.server;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.local.LocalAddress;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import net.minecraft.network.INetHandler;
+import net.minecraft.network.NetHandlerPlayServer;
 import net.minecraft.network.NetworkManager;
+import net.minecraft.network.Packet;
 import org.spongepowered.api.MinecraftVersion;
 import org.spongepowered.api.network.RemoteConnection;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeMinecraftVersion;
 import org.spongepowered.common.interfaces.IMixinNetworkManager;
+import org.spongepowered.common.network.PacketBatcher;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -45,6 +56,7 @@
 public abstract class MixinNetworkManager extends SimpleChannelInboundHandler implements RemoteConnection, IMixinNetworkManager {
 
     @Shadow private Channel channel;
+    @Shadow private INetHandler packetListener;
 
     @Shadow public abstract SocketAddress getRemoteAddress();
 
@@ -84,6 +96,26 @@ public void setVirtualHost(String host, int port) {
         }
     }
 
+    @Inject(method = "dispatchPacket", at = @At("HEAD"), cancellable = true)
+    private void onDispatchPacket(Packet<?> packet, GenericFutureListener<? extends Future<? super Void>>[] listeners, CallbackInfo ci) {
+        // Only play packets are batched, they never change the connection state
+        if (!(this.packetListener instanceof NetHandlerPlayServer) || !PacketBatcher.isEnabled()) {
+            return;
+        }
+        if (PacketBatcher.requiresImmediateFlush(packet)) {
+            PacketBatcher.onPacketFlushed();
+            return;
+        }
+
+        ci.cancel();
+        final ChannelFuture future = this.channel.write(packet);
+        if (listeners != null) {
+            future.addListeners(listeners);
+        }
+        future.addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        PacketBatcher.onPacketQueued(this.channel);
+    }
+
     @Override
     public MinecraftVersion getVersion() {
         return this.version;
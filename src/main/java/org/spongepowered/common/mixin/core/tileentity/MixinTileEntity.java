@@ -106,6 +106,13 @@ public void onMarkDirty(CallbackInfo ci) {
         }
     }
 
+    @Inject(method = "invalidate", at = @At(value = "HEAD"))
+    private void onInvalidate(CallbackInfo ci) {
+        if (this.worldObj != null) {
+            ((IMixinWorld) this.worldObj).onTileEntityInvalidated(this);
+        }
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     @Inject(method = "addMapping(Ljava/lang/Class;Ljava/lang/String;)V", at = @At(value = "RETURN"))
     private static void onRegister(Class clazz, String name, CallbackInfo callbackInfo) {
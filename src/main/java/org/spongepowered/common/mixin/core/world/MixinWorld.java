@@ -78,6 +78,7 @@
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.block.tileentity.TileEntity;
+import org.spongepowered.api.block.tileentity.TileEntityType;
 import org.spongepowered.api.data.DataContainer;
 import org.spongepowered.api.data.manipulator.DataManipulator;
 import org.spongepowered.api.entity.Entity;
@@ -102,7 +103,6 @@
 import org.spongepowered.api.text.title.Title;
 import org.spongepowered.api.util.Direction;
 import org.spongepowered.api.util.DiscreteTransform3;
-import org.spongepowered.api.util.Functional;
 import org.spongepowered.api.util.PositionOutOfBoundsException;
 import org.spongepowered.api.util.annotation.NonnullByDefault;
 import org.spongepowered.api.world.Chunk;
@@ -152,6 +152,8 @@
 import org.spongepowered.common.world.CaptureType;
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.SpongeChunkPreGenerate;
+import org.spongepowered.common.world.TrackedUserCache;
+import org.spongepowered.common.world.TypeIndex;
 import org.spongepowered.common.world.border.PlayerBorderListener;
 import org.spongepowered.common.world.extent.ExtentViewDownsize;
 import org.spongepowered.common.world.extent.ExtentViewTransform;
@@ -164,6 +166,7 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -201,7 +204,14 @@ public abstract class MixinWorld implements World, IMixinWorld {
     private SpongeConfig<?> activeConfig;
     private MessageChannel channel = MessageChannel.world(this);
     protected final CauseTracker causeTracker = new CauseTracker((net.minecraft.world.World) (Object) this);
+    private final TrackedUserCache trackedUserCache = new TrackedUserCache((net.minecraft.world.World) (Object) this);
     private final Map<net.minecraft.entity.Entity, Vector3d> rotationUpdates = new HashMap<>();
+    private final TypeIndex<EntityType, Entity> entitiesByType = new TypeIndex<>();
+    private final TypeIndex<TileEntityType, TileEntity> tileEntitiesByType = new TypeIndex<>();
+    // Only used by client worlds, WorldServer keeps its own mapping
+    private final Map<UUID, net.minecraft.entity.Entity> entitiesByUniqueId = new HashMap<>();
+    private Collection<Entity> entitiesView;
+    private Collection<TileEntity> tileEntitiesView;
 
     // @formatter:off
     @Shadow @Final public boolean isRemote;
@@ -244,8 +254,6 @@ public abstract class MixinWorld implements World, IMixinWorld {
     @Shadow public abstract boolean isChunkLoaded(int x, int z, boolean allowEmpty);
     @Shadow public abstract net.minecraft.world.Explosion newExplosion(net.minecraft.entity.Entity entityIn, double x, double y, double z, float strength,
             boolean isFlaming, boolean isSmoking);
-    @Shadow public abstract List<net.minecraft.entity.Entity> getEntities(Class<net.minecraft.entity.Entity> entityType,
-            com.google.common.base.Predicate<net.minecraft.entity.Entity> filter);
     @Shadow public abstract List<net.minecraft.entity.Entity> getEntitiesWithinAABBExcludingEntity(net.minecraft.entity.Entity entityIn, AxisAlignedBB bb);
 
     // @formatter:on
@@ -391,9 +399,24 @@ public Collection<Entity> getEntities() {
     @SuppressWarnings("unchecked")
     @Override
     public Collection<Entity> getEntities(Predicate<Entity> filter) {
-        // This already returns a new copy
-        return (Collection<Entity>) (Object) this.getEntities(net.minecraft.entity.Entity.class,
-                Functional.java8ToGuava((Predicate<net.minecraft.entity.Entity>) (Object) filter));
+        // Only the matching entities are copied
+        return ((List<Entity>) (Object) this.loadedEntityList).stream()
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<Entity> getEntitiesView() {
+        if (this.entitiesView == null) {
+            this.entitiesView = Collections.unmodifiableList((List<Entity>) (Object) this.loadedEntityList);
+        }
+        return this.entitiesView;
+    }
+
+    @Override
+    public Collection<Entity> getEntitiesView(EntityType type) {
+        return this.entitiesByType.get(type);
     }
 
     @Override
@@ -520,12 +543,7 @@ public SpongeConfig<SpongeConfig.WorldConfig> getWorldConfig() {
     @Override
     public Optional<Entity> getEntity(UUID uuid) {
         // Note that MixinWorldServer is properly overriding this to use it's own mapping.
-        for (net.minecraft.entity.Entity entity : this.loadedEntityList) {
-            if (entity.getUniqueID().equals(uuid)) {
-                return Optional.of((Entity) entity);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable((Entity) this.entitiesByUniqueId.get(uuid));
     }
 
     @SuppressWarnings("unchecked")
@@ -760,6 +778,64 @@ public Collection<TileEntity> getTileEntities(Predicate<TileEntity> filter) {
                 .collect(Collectors.toList());
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<TileEntity> getTileEntitiesView() {
+        if (this.tileEntitiesView == null) {
+            this.tileEntitiesView = Collections.unmodifiableList((List<TileEntity>) (Object) this.loadedTileEntityList);
+        }
+        return this.tileEntitiesView;
+    }
+
+    @Override
+    public Collection<TileEntity> getTileEntitiesView(TileEntityType type) {
+        return this.tileEntitiesByType.get(type);
+    }
+
+    @Override
+    public void onTileEntityInvalidated(TileEntity tileEntity) {
+        // Tile entities replaced in their chunk are only invalidated, they don't go through removeTileEntity
+        this.tileEntitiesByType.remove(tileEntity.getType(), tileEntity);
+    }
+
+    @Inject(method = "addTileEntity", at = @At("RETURN"))
+    private void onAddTileEntity(net.minecraft.tileentity.TileEntity tileEntity, CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValue()) {
+            this.tileEntitiesByType.add(((TileEntity) tileEntity).getType(), (TileEntity) tileEntity);
+        }
+    }
+
+    @Inject(method = "addTileEntities", at = @At("HEAD"))
+    private void onAddTileEntities(Collection<net.minecraft.tileentity.TileEntity> tileEntities, CallbackInfo ci) {
+        for (net.minecraft.tileentity.TileEntity tileEntity : tileEntities) {
+            this.tileEntitiesByType.add(((TileEntity) tileEntity).getType(), (TileEntity) tileEntity);
+        }
+    }
+
+    @Inject(method = "removeTileEntity", at = @At("HEAD"))
+    private void onRemoveTileEntity(BlockPos pos, CallbackInfo ci) {
+        // Look the tile entity up in the chunk directly, getTileEntity would create a missing one
+        if (isBlockLoaded(pos)) {
+            final net.minecraft.tileentity.TileEntity tileEntity = getChunkFromBlockCoords(pos).getTileEntityMap().get(pos);
+            if (tileEntity != null) {
+                this.tileEntitiesByType.remove(((TileEntity) tileEntity).getType(), (TileEntity) tileEntity);
+            }
+        }
+    }
+
+    @Inject(method = "markTileEntityForRemoval", at = @At("HEAD"))
+    private void onMarkTileEntityForRemoval(net.minecraft.tileentity.TileEntity tileEntity, CallbackInfo ci) {
+        // Called for every tile entity of a chunk that is unloaded
+        this.tileEntitiesByType.remove(((TileEntity) tileEntity).getType(), (TileEntity) tileEntity);
+    }
+
+    @Redirect(method = "updateEntities", at = @At(value = "INVOKE", target = "Ljava/util/List;remove(Ljava/lang/Object;)Z"))
+    private boolean onRemoveInvalidTileEntity(List<net.minecraft.tileentity.TileEntity> list, Object tileEntity) {
+        // Invalid tile entities are dropped from the loaded list while ticking
+        this.tileEntitiesByType.remove(((TileEntity) tileEntity).getType(), (TileEntity) tileEntity);
+        return list.remove(tileEntity);
+    }
+
     @Override
     public boolean isLoaded() {
         return DimensionManager.getWorldFromDimId(this.provider.getDimensionId()) != null;
@@ -1273,11 +1349,29 @@ public void onUpdateRidden(net.minecraft.entity.Entity entity) {
         causeTracker.postTrackEntity();
     }
 
+    @Inject(method = "onEntityAdded", at = @At(value = "HEAD"))
+    public void onEntityAddition(net.minecraft.entity.Entity entityIn, CallbackInfo ci) {
+        if (!this.isRemote && entityIn instanceof EntityPlayer) {
+            this.trackedUserCache.onPlayerAdded((EntityPlayer) entityIn);
+        }
+        this.entitiesByType.add(((Entity) entityIn).getType(), (Entity) entityIn);
+        if (this.isRemote) {
+            this.entitiesByUniqueId.put(entityIn.getUniqueID(), entityIn);
+        }
+    }
+
     @Inject(method = "onEntityRemoved", at = @At(value = "HEAD"))
     public void onEntityRemoval(net.minecraft.entity.Entity entityIn, CallbackInfo ci) {
         if (!this.isRemote && (!(entityIn instanceof EntityLivingBase) || entityIn instanceof EntityArmorStand)) {
             getCauseTracker().handleNonLivingEntityDestruct(entityIn);
         }
+        if (!this.isRemote && entityIn instanceof EntityPlayer) {
+            this.trackedUserCache.onPlayerRemoved((EntityPlayer) entityIn);
+        }
+        this.entitiesByType.remove(((Entity) entityIn).getType(), (Entity) entityIn);
+        if (this.isRemote) {
+            this.entitiesByUniqueId.remove(entityIn.getUniqueID(), entityIn);
+        }
     }
 
     @Inject(method = "spawnEntityInWorld", at = @At("HEAD"), cancellable = true)
@@ -1404,6 +1498,11 @@ public CauseTracker getCauseTracker() {
         return this.causeTracker;
     }
 
+    @Override
+    public TrackedUserCache getTrackedUserCache() {
+        return this.trackedUserCache;
+    }
+
 
     @Override
     public void setBlock(int x, int y, int z, BlockState block, boolean notifyNeighbors) {
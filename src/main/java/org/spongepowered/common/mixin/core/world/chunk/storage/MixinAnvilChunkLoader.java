@@ -25,7 +25,6 @@
 package org.spongepowered.common.mixin.core.world.chunk.storage;
 
 import com.flowpowered.math.vector.Vector3d;
-import com.google.common.collect.Maps;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.item.EntityMinecart;
@@ -56,7 +55,7 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.data.util.NbtDataUtil;
-import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
 import org.spongepowered.common.registry.type.entity.EntityTypeRegistryModule;
@@ -76,72 +75,62 @@ public abstract class MixinAnvilChunkLoader implements IMixinAnvilChunkLoader {
     @Shadow private Set<ChunkCoordIntPair> pendingAnvilChunksCoordinates;
     @Shadow private Map<ChunkCoordIntPair, NBTTagCompound> chunksToRemove;
     @Shadow @Final private File chunkSaveLocation;
+    @Shadow private Object syncLockObject;
 
     @Inject(method = "writeChunkToNBT", at = @At(value = "RETURN"))
     public void onWriteChunkToNBT(net.minecraft.world.chunk.Chunk chunkIn, World worldIn, NBTTagCompound compound, CallbackInfo ci) {
         IMixinChunk chunk = (IMixinChunk) chunkIn;
 
         // Add tracked block positions
-        if (chunk.getTrackedShortPlayerPositions().size() > 0 || chunk.getTrackedIntPlayerPositions().size() > 0) {
+        PlayerTrackerMap trackedPositions = chunk.getTrackedBlockPositions();
+        if (!trackedPositions.isEmpty()) {
             NBTTagCompound trackedNbt = new NBTTagCompound();
-            NBTTagList positions = new NBTTagList();
-            trackedNbt.setTag(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, positions);
+            // Stored as packed position, owner and notifier triples
+            trackedNbt.setIntArray(NbtDataUtil.SPONGE_TRACKED_BLOCKS, trackedPositions.toArray());
             compound.setTag(NbtDataUtil.SPONGE_DATA, trackedNbt);
-
-            for (Map.Entry<Short, PlayerTracker> mapEntry : chunk.getTrackedShortPlayerPositions().entrySet()) {
-                Short pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
-                NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                valueNbt.setInteger("notifier", notifierUniqueIdIndex);
-                valueNbt.setShort("pos", pos);
-                positions.appendTag(valueNbt);
-            }
-
-            for (Map.Entry<Integer, PlayerTracker> mapEntry : chunk.getTrackedIntPlayerPositions().entrySet()) {
-                Integer pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
-                NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                valueNbt.setInteger("notifier", notifierUniqueIdIndex);
-                valueNbt.setInteger("ipos", pos);
-                positions.appendTag(valueNbt);
-            }
         }
     }
 
     @Inject(method = "readChunkFromNBT", at = @At(value = "INVOKE", target = "Lnet/minecraft/nbt/NBTTagCompound;getIntArray(Ljava/lang/String;)[I", shift = At.Shift.BEFORE), locals = LocalCapture.CAPTURE_FAILHARD)
     public void onReadChunkFromNBT(World worldIn, NBTTagCompound compound, CallbackInfoReturnable<net.minecraft.world.chunk.Chunk> ci, int chunkX, int chunkZ, net.minecraft.world.chunk.Chunk chunkIn) {
         if (compound.hasKey(NbtDataUtil.SPONGE_DATA)) {
-            Map<Integer, PlayerTracker> trackedIntPlayerPositions = Maps.newHashMap();
-            Map<Short, PlayerTracker> trackedShortPlayerPositions = Maps.newHashMap();
-            NBTTagList positions = compound.getCompoundTag(NbtDataUtil.SPONGE_DATA).getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, 10);
-            IMixinChunk chunk = (IMixinChunk) chunkIn;
-            for (int i = 0; i < positions.tagCount(); i++) {
-                NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
-                boolean isShortPos = valueNbt.hasKey("pos");
-                PlayerTracker tracker = new PlayerTracker();
-                if (valueNbt.hasKey("owner")) {
-                    tracker.ownerIndex = valueNbt.getInteger("owner");
-                } else if (valueNbt.hasKey("uuid")) { // Migrate old data, remove in future
-                    tracker.ownerIndex = valueNbt.getInteger("uuid");
-                }
-                if (valueNbt.hasKey("notifier")) {
-                    tracker.notifierIndex = valueNbt.getInteger("notifier");
-                }
+            NBTTagCompound trackedNbt = compound.getCompoundTag(NbtDataUtil.SPONGE_DATA);
+            PlayerTrackerMap trackedPositions = ((IMixinChunk) chunkIn).getTrackedBlockPositions();
+            trackedPositions.clear();
+            if (trackedNbt.hasKey(NbtDataUtil.SPONGE_TRACKED_BLOCKS)) {
+                trackedPositions.addAll(trackedNbt.getIntArray(NbtDataUtil.SPONGE_TRACKED_BLOCKS));
+            } else {
+                readLegacyTrackedPositions(trackedNbt.getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, NbtDataUtil.TAG_COMPOUND), trackedPositions);
+            }
+        }
+    }
 
-                if (tracker.notifierIndex != -1 || tracker.ownerIndex != -1) {
-                    if (isShortPos) {
-                        trackedShortPlayerPositions.put(valueNbt.getShort("pos"), tracker);
-                    } else {
-                        trackedIntPlayerPositions.put(valueNbt.getInteger("ipos"), tracker);
-                    }
-                }
+    // Migrates the position table chunks were saved with before the tracked blocks were packed, remove in future
+    private static void readLegacyTrackedPositions(NBTTagList positions, PlayerTrackerMap trackedPositions) {
+        for (int i = 0; i < positions.tagCount(); i++) {
+            NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
+            int owner = -1;
+            int notifier = -1;
+            if (valueNbt.hasKey("owner")) {
+                owner = valueNbt.getInteger("owner");
+            } else if (valueNbt.hasKey("uuid")) {
+                owner = valueNbt.getInteger("uuid");
+            }
+            if (valueNbt.hasKey("notifier")) {
+                notifier = valueNbt.getInteger("notifier");
+            }
+            if (owner == -1 && notifier == -1) {
+                continue;
+            }
+            if (valueNbt.hasKey("pos")) {
+                // x in the lowest nibble, then 8 bits of y and z in the highest nibble
+                short pos = valueNbt.getShort("pos");
+                trackedPositions.set(pos & 0xF, (pos >> 4) & 0xFF, (pos >> 12) & 0xF, owner, notifier);
+            } else {
+                // x in the lowest nibble, then 24 bits of y and z in the highest nibble
+                int pos = valueNbt.getInteger("ipos");
+                trackedPositions.set(pos & 0xF, (pos >> 4) & 0xFFFFFF, (pos >> 28) & 0xF, owner, notifier);
             }
-            chunk.setTrackedIntPlayerPositions(trackedIntPlayerPositions);
-            chunk.setTrackedShortPlayerPositions(trackedShortPlayerPositions);
         }
     }
 
@@ -188,10 +177,14 @@ private Entity onReadEntity(NBTTagCompound compound, World world) {
     public boolean loader$chunkExists(World world, int x, int z) {
         ChunkCoordIntPair chunkcoordintpair = new ChunkCoordIntPair(x, z);
 
-        if (this.pendingAnvilChunksCoordinates.contains(chunkcoordintpair)) {
-            for (ChunkCoordIntPair pendingChunkCoord : this.chunksToRemove.keySet()) {
-                if (pendingChunkCoord.equals(chunkcoordintpair)) {
-                    return true;
+        // The pending chunks are written by the file IO thread, and this may
+        // be called from the chunk generation worker
+        synchronized (this.syncLockObject) {
+            if (this.pendingAnvilChunksCoordinates.contains(chunkcoordintpair)) {
+                for (ChunkCoordIntPair pendingChunkCoord : this.chunksToRemove.keySet()) {
+                    if (pendingChunkCoord.equals(chunkcoordintpair)) {
+                        return true;
+                    }
                 }
             }
         }
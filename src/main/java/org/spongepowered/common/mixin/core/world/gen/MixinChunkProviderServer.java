@@ -66,6 +66,11 @@ public Chunk getChunkIfLoaded(int x, int z) {
         return this.id2ChunkMap.getValueByKey(ChunkCoordIntPair.chunkXZ2Int(x, z));
     }
 
+    @Override
+    public boolean isChunkSaved(int x, int z) {
+        return this.chunkLoader instanceof IMixinAnvilChunkLoader && ((IMixinAnvilChunkLoader) this.chunkLoader).chunkExists(this.worldObj, x, z);
+    }
+
     /**
      * @author blood - May 9th, 2016
      * @reason Control terrain gen flag here to avoid leaking block captures during populate.
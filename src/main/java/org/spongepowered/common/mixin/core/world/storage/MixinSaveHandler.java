@@ -43,6 +43,7 @@
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.interfaces.IMixinSaveHandler;
 import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.storage.SpongePlayerDataHandler;
@@ -97,6 +98,7 @@ public void onSaveWorldInfoWithPlayerAfterTagSet(WorldInfo worldInformation, NBT
     @Inject(method = "saveWorldInfoWithPlayer", at = @At("RETURN"))
     public void onSaveWorldInfoWithPlayerEnd(WorldInfo worldInformation, NBTTagCompound tagCompound, CallbackInfo ci) {
         saveSpongeDatData(worldInformation);
+        UserIndex.saveIfDirty();
     }
 
     @Inject(method = "saveWorldInfo", at = @At(value = "INVOKE", target = NBT_COMPOUND_SET, shift = At.Shift.AFTER),
@@ -110,6 +112,7 @@ public void onSaveWorldInfoAfterTagSet(WorldInfo worldInformation, CallbackInfo
     public void onSaveWorldInfoEnd(WorldInfo worldInformation, CallbackInfo ci) {
         if (!StaticMixinHelper.convertingMapFormat) {
             saveSpongeDatData(worldInformation);
+            UserIndex.saveIfDirty();
         }
     }
 
@@ -237,6 +240,7 @@ private NBTTagCompound spongeReadPlayerData(InputStream inputStream) throws IOEx
     @Inject(method = "writePlayerData", at = @At(value = "INVOKE", target = COMPRESSED_WRITE_FILE, shift = At.Shift.AFTER))
     private void onSpongeWrite(EntityPlayer player, CallbackInfo callbackInfo) {
         SpongePlayerDataHandler.savePlayer(player.getUniqueID());
+        UserIndex.onDataSaved(player.getGameProfile());
     }
 
 }
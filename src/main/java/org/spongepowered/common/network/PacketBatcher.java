@@ -0,0 +1,136 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import io.netty.channel.Channel;
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.S00PacketKeepAlive;
+import net.minecraft.network.play.server.S40PacketDisconnect;
+import org.spongepowered.common.SpongeImpl;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Defers the flushing of outgoing play packets to the end of the server tick,
+ * so every connection is flushed once per tick instead of once per packet.
+ *
+ * <p>Packets are still written to the channel in order, only the flush is
+ * delayed. Keep alive and disconnect packets flush immediately, which also
+ * sends everything written before them.</p>
+ */
+public final class PacketBatcher {
+
+    private static final Set<Channel> pendingChannels = ConcurrentHashMap.newKeySet();
+    private static final LongAdder tickPackets = new LongAdder();
+    private static final LongAdder tickFlushes = new LongAdder();
+
+    private static volatile long ticks;
+    private static volatile long totalPackets;
+    private static volatile long totalFlushes;
+    private static volatile long lastTickPackets;
+    private static volatile long lastTickFlushes;
+
+    private PacketBatcher() {
+    }
+
+    public static boolean isEnabled() {
+        return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useBatchedPacketFlushing();
+    }
+
+    /**
+     * Gets whether the given packet has to be flushed as soon as it is sent.
+     *
+     * @param packet The packet
+     * @return True if the packet may not wait for the end of the tick
+     */
+    public static boolean requiresImmediateFlush(Packet<?> packet) {
+        return packet instanceof S00PacketKeepAlive || packet instanceof S40PacketDisconnect;
+    }
+
+    /**
+     * Marks the channel as having a packet written that is not flushed yet.
+     *
+     * @param channel The channel the packet was written to
+     */
+    public static void onPacketQueued(Channel channel) {
+        pendingChannels.add(channel);
+        tickPackets.increment();
+    }
+
+    /**
+     * Records a packet that was written and flushed immediately.
+     */
+    public static void onPacketFlushed() {
+        tickPackets.increment();
+        tickFlushes.increment();
+    }
+
+    /**
+     * Flushes every channel with pending packets, called once at the end of
+     * each server tick.
+     */
+    public static void flushPendingChannels() {
+        for (Iterator<Channel> it = pendingChannels.iterator(); it.hasNext(); ) {
+            final Channel channel = it.next();
+            it.remove();
+            if (channel.isOpen()) {
+                channel.flush();
+                tickFlushes.increment();
+            }
+        }
+
+        final long packets = tickPackets.sumThenReset();
+        final long flushes = tickFlushes.sumThenReset();
+        lastTickPackets = packets;
+        lastTickFlushes = flushes;
+        totalPackets += packets;
+        totalFlushes += flushes;
+        ticks++;
+    }
+
+    public static long getTicks() {
+        return ticks;
+    }
+
+    public static long getTotalPackets() {
+        return totalPackets;
+    }
+
+    public static long getTotalFlushes() {
+        return totalFlushes;
+    }
+
+    public static long getLastTickPackets() {
+        return lastTickPackets;
+    }
+
+    public static long getLastTickFlushes() {
+        return lastTickFlushes;
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.profile;
+
+import com.google.common.base.Objects;
+import org.spongepowered.api.profile.GameProfile;
+import org.spongepowered.api.profile.GameProfileCache;
+import org.spongepowered.api.profile.ProfileNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Coalesces single profile lookups. Concurrent requests for the same key
+ * share one future, and all requests made until the lookup task gets to run
+ * are looked up in a single batch.
+ *
+ * @param <K> The type of the key profiles are looked up by
+ */
+final class ProfileLookupCoalescer<K> {
+
+    static final BatchLookup<UUID> BY_UNIQUE_ID =
+            (cache, uniqueIds, useCache) -> useCache ? cache.getOrLookupByIds(uniqueIds) : cache.lookupByIds(uniqueIds);
+    static final BatchLookup<String> BY_NAME =
+            (cache, names, useCache) -> useCache ? cache.getOrLookupByNames(names) : lookupByNames(cache, names);
+
+    private final BatchLookup<K> lookup;
+    private final TaskSubmitter submitter;
+    private final Map<Request<K>, CompletableFuture<GameProfile>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<Request<K>> pending = new ArrayList<>();
+
+    ProfileLookupCoalescer(BatchLookup<K> lookup, TaskSubmitter submitter) {
+        this.lookup = lookup;
+        this.submitter = submitter;
+    }
+
+    private static Map<String, Optional<GameProfile>> lookupByNames(GameProfileCache cache, Collection<String> names) {
+        // lookupByNames keys its results by the actual name of the profile, which
+        // may be capitalized differently than the requested name
+        final Map<String, Optional<GameProfile>> byLowerCaseName = new HashMap<>();
+        cache.lookupByNames(names).forEach((name, profile) -> byLowerCaseName.put(name.toLowerCase(Locale.ENGLISH), profile));
+        final Map<String, Optional<GameProfile>> result = new HashMap<>();
+        for (String name : names) {
+            final Optional<GameProfile> profile = byLowerCaseName.get(name.toLowerCase(Locale.ENGLISH));
+            if (profile != null) {
+                result.put(name, profile);
+            }
+        }
+        return result;
+    }
+
+    CompletableFuture<GameProfile> get(GameProfileCache cache, K key, boolean useCache) {
+        final Request<K> request = new Request<>(cache, key, useCache);
+        CompletableFuture<GameProfile> future = this.inFlight.get(request);
+        if (future != null) {
+            return future;
+        }
+        future = new CompletableFuture<>();
+        final CompletableFuture<GameProfile> existing = this.inFlight.putIfAbsent(request, future);
+        if (existing != null) {
+            return existing;
+        }
+        final boolean submit;
+        synchronized (this.lock) {
+            submit = this.pending.isEmpty();
+            this.pending.add(request);
+        }
+        if (submit) {
+            try {
+                this.submitter.submit(this::lookupPending, this::rejectPending);
+            } catch (RejectedExecutionException e) {
+                rejectPending();
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Fails all pending requests because their lookup task was rejected. The
+     * next request submits a new task.
+     */
+    private void rejectPending() {
+        final List<Request<K>> requests;
+        synchronized (this.lock) {
+            requests = this.pending;
+            this.pending = new ArrayList<>();
+        }
+        final RejectedExecutionException error = new RejectedExecutionException("The profile lookup task was rejected");
+        for (Request<K> request : requests) {
+            final CompletableFuture<GameProfile> future = this.inFlight.remove(request);
+            if (future != null) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+
+    private void lookupPending() {
+        final List<Request<K>> requests;
+        synchronized (this.lock) {
+            requests = this.pending;
+            this.pending = new ArrayList<>();
+        }
+        // Requests can only be batched if they target the same cache in the same way
+        final Map<Request<K>, List<K>> batches = new LinkedHashMap<>();
+        for (Request<K> request : requests) {
+            batches.computeIfAbsent(new Request<>(request.cache, null, request.useCache), batch -> new ArrayList<>()).add(request.key);
+        }
+        for (Map.Entry<Request<K>, List<K>> entry : batches.entrySet()) {
+            final Request<K> batch = entry.getKey();
+            Map<K, Optional<GameProfile>> result = null;
+            Throwable error = null;
+            try {
+                result = this.lookup.lookup(batch.cache, entry.getValue(), batch.useCache);
+            } catch (Throwable t) {
+                error = t;
+            }
+            for (K key : entry.getValue()) {
+                // Remove the request first, later requests should see the updated cache
+                final CompletableFuture<GameProfile> future = this.inFlight.remove(new Request<>(batch.cache, key, batch.useCache));
+                if (error != null) {
+                    future.completeExceptionally(error);
+                    continue;
+                }
+                final Optional<GameProfile> profile = result.get(key);
+                if (profile != null && profile.isPresent()) {
+                    future.complete(profile.get());
+                } else {
+                    future.completeExceptionally(new ProfileNotFoundException("Profile: " + key));
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface TaskSubmitter {
+
+        /**
+         * Submits the task to be run asynchronously. A rejection is either
+         * thrown or reported by running the given callback.
+         *
+         * @param task The task to run
+         * @param onRejected Run instead of the task if it is rejected
+         * @throws RejectedExecutionException If the task is rejected
+         */
+        void submit(Runnable task, Runnable onRejected);
+    }
+
+    @FunctionalInterface
+    interface BatchLookup<K> {
+
+        Map<K, Optional<GameProfile>> lookup(GameProfileCache cache, Collection<K> keys, boolean useCache) throws Exception;
+    }
+
+    private static final class Request<K> {
+
+        final GameProfileCache cache;
+        final K key;
+        final boolean useCache;
+
+        Request(GameProfileCache cache, K key, boolean useCache) {
+            this.cache = cache;
+            this.key = key;
+            this.useCache = useCache;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Request)) {
+                return false;
+            }
+            final Request<?> other = (Request<?>) obj;
+            return this.cache == other.cache && this.useCache == other.useCache && Objects.equal(this.key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(System.identityHashCode(this.cache), this.key, this.useCache);
+        }
+    }
+
+}
@@ -32,6 +32,7 @@
 import org.spongepowered.api.profile.GameProfileCache;
 import org.spongepowered.api.profile.GameProfileManager;
 import org.spongepowered.api.profile.property.ProfileProperty;
+import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.profile.query.GameProfileQuery;
 import org.spongepowered.common.profile.query.NameQuery;
 import org.spongepowered.common.profile.query.UniqueIdQuery;
@@ -48,6 +49,8 @@ public final class SpongeProfileManager implements GameProfileManager {
 
     private final GameProfileCache defaultCache = (GameProfileCache) ((MinecraftServer) Sponge.getServer()).getPlayerProfileCache();
     private GameProfileCache cache = this.defaultCache;
+    private final ProfileLookupCoalescer<UUID> uniqueIdLookups = new ProfileLookupCoalescer<>(ProfileLookupCoalescer.BY_UNIQUE_ID, this::execute);
+    private final ProfileLookupCoalescer<String> nameLookups = new ProfileLookupCoalescer<>(ProfileLookupCoalescer.BY_NAME, this::execute);
 
     @Override
     public GameProfile createProfile(UUID uniqueId, @Nullable String name) {
@@ -62,7 +65,7 @@ public ProfileProperty createProfileProperty(String name, String value, @Nullabl
 
     @Override
     public CompletableFuture<GameProfile> get(UUID uniqueId, final boolean useCache) {
-        return this.submitTask(new UniqueIdQuery.SingleGet(this.cache, checkNotNull(uniqueId, "unique id"), useCache));
+        return this.uniqueIdLookups.get(this.cache, checkNotNull(uniqueId, "unique id"), useCache);
     }
 
     @Override
@@ -72,7 +75,7 @@ public CompletableFuture<Collection<GameProfile>> getAllById(Iterable<UUID> uniq
 
     @Override
     public CompletableFuture<GameProfile> get(String name, boolean useCache) {
-        return this.submitTask(new NameQuery.SingleGet(this.cache, checkNotNull(name, "name"), useCache));
+        return this.nameLookups.get(this.cache, checkNotNull(name, "name"), useCache);
     }
 
     @Override
@@ -104,4 +107,8 @@ private <T> CompletableFuture<T> submitTask(Callable<T> callable) {
         return SpongeScheduler.getInstance().submitAsyncTask(callable);
     }
 
+    private void execute(Runnable runnable, Runnable onRejected) {
+        SpongeScheduler.getInstance().getAsyncTaskExecutor().execute(SpongeImpl.getPlugin(), runnable, onRejected);
+    }
+
 }
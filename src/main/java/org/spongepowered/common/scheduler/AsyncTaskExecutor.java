@@ -0,0 +1,312 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.scheduler;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Runs asynchronous tasks on an executor built from the scheduler
+ * configuration, enforcing the per-plugin concurrency limits and keeping
+ * metrics about queueing and task latency.
+ *
+ * <p>Submitting a task never blocks and never runs the task on the calling
+ * thread. If the queue of a bounded pool is full, tasks are either deferred
+ * until a thread is free or rejected, depending on the configuration.</p>
+ */
+public final class AsyncTaskExecutor {
+
+    private final SpongeConfig.SchedulerCategory config;
+    private final ExecutorService executor;
+    // Only present if the executor is a bounded pool
+    @Nullable private final ThreadPoolExecutor pool;
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final Map<String, PluginTasks> pluginTasks = new ConcurrentHashMap<>();
+    private final boolean deferRejected;
+    // Tasks the pool had no room for, submitted again whenever a task finishes
+    private final Deque<TrackedTask> deferred = new ConcurrentLinkedDeque<>();
+
+    AsyncTaskExecutor(SpongeConfig.SchedulerCategory config) {
+        this.config = config;
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Sponge Async Scheduler Worker #%d").build();
+        ExecutorService executor = null;
+        if (config.useAsyncVirtualThreads()) {
+            try {
+                // Looked up reflectively, virtual threads are not available on every supported runtime
+                executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                SpongeImpl.getLogger().warn("Virtual threads for asynchronous tasks are enabled, but not supported by this Java runtime. "
+                        + "Falling back to a thread pool.");
+            }
+        }
+        if (executor == null && config.getAsyncMaxThreads() > 0) {
+            BlockingQueue<Runnable> queue = config.getAsyncQueueSize() > 0
+                    ? new ArrayBlockingQueue<>(config.getAsyncQueueSize()) : new LinkedBlockingQueue<>();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(config.getAsyncMaxThreads(), config.getAsyncMaxThreads(), 60L, TimeUnit.SECONDS,
+                    queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        } else if (executor == null) {
+            executor = Executors.newCachedThreadPool(threadFactory);
+        }
+        this.executor = executor;
+        this.pool = executor instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) executor : null;
+        this.deferRejected = !"abort".equalsIgnoreCase(config.getAsyncRejectionPolicy());
+    }
+
+    /**
+     * Runs the task of the plugin, or queues it if the plugin already has as
+     * many tasks running as it's allowed to.
+     *
+     * @param plugin The plugin owning the task
+     * @param runnable The task to run
+     * @param onRejected Run instead of the task if it is rejected, this may
+     *     happen on any thread
+     */
+    public void execute(PluginContainer plugin, Runnable runnable, @Nullable Runnable onRejected) {
+        PluginTasks tasks = this.pluginTasks.computeIfAbsent(plugin.getId(),
+                id -> new PluginTasks(this.config.getAsyncPluginConcurrencyLimit(id)));
+        TrackedTask task = new TrackedTask(tasks, runnable, onRejected);
+        synchronized (tasks) {
+            if (tasks.limit > 0 && tasks.running >= tasks.limit) {
+                tasks.waiting.add(task);
+                return;
+            }
+            tasks.running++;
+        }
+        submit(task);
+    }
+
+    /**
+     * Runs the callable of the plugin, see
+     * {@link #execute(PluginContainer, Runnable, Runnable)}.
+     *
+     * @param plugin The plugin owning the task
+     * @param callable The task to run
+     * @param <T> The type of the result
+     * @return A future completed with the result, or exceptionally if the
+     *     callable failed or the task was rejected
+     */
+    public <T> CompletableFuture<T> submit(PluginContainer plugin, Callable<T> callable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(plugin, () -> {
+            try {
+                future.complete(callable.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, () -> future.completeExceptionally(new RejectedExecutionException("The async scheduler queue is full")));
+        return future;
+    }
+
+    private void submit(TrackedTask task) {
+        if (!this.deferred.isEmpty()) {
+            // Keep the order of the tasks that are already waiting
+            this.deferred.add(task);
+            submitDeferred();
+            return;
+        }
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (this.deferRejected) {
+                this.deferred.add(task);
+                // A task may have finished in the meantime without seeing this one
+                submitDeferred();
+            } else {
+                SpongeImpl.getLogger().error("An asynchronous task was rejected because the async scheduler queue is full.", e);
+                task.reject();
+            }
+        }
+    }
+
+    private void submitDeferred() {
+        TrackedTask task;
+        while ((task = this.deferred.poll()) != null) {
+            try {
+                this.executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                this.deferred.addFirst(task);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of tasks waiting for either a free thread or a free
+     * slot of their plugin.
+     *
+     * @return The amount of queued tasks
+     */
+    public int getQueuedTasks() {
+        int queued = this.pool != null ? this.pool.getQueue().size() + this.deferred.size() : 0;
+        for (PluginTasks tasks : this.pluginTasks.values()) {
+            synchronized (tasks) {
+                queued += tasks.waiting.size();
+            }
+        }
+        return queued;
+    }
+
+    public int getActiveTasks() {
+        return this.activeTasks.get();
+    }
+
+    /**
+     * Gets the amount of threads in the pool, or -1 if the executor does not
+     * pool its threads.
+     *
+     * @return The amount of threads
+     */
+    public int getThreadCount() {
+        return this.pool != null ? this.pool.getPoolSize() : -1;
+    }
+
+    public Map<String, PluginTasks> getPluginTasks() {
+        return ImmutableMap.copyOf(this.pluginTasks);
+    }
+
+    /**
+     * The running and waiting asynchronous tasks of a single plugin.
+     */
+    public static final class PluginTasks {
+
+        final int limit;
+        final Queue<TrackedTask> waiting = new ArrayDeque<>();
+        int running;
+        final LongAdder completed = new LongAdder();
+        // Time between submitting and starting tasks, in nanoseconds
+        final LongAdder totalLatency = new LongAdder();
+        final AtomicLong maxLatency = new AtomicLong();
+
+        PluginTasks(int limit) {
+            this.limit = limit;
+        }
+
+        public synchronized int getRunning() {
+            return this.running;
+        }
+
+        public synchronized int getWaiting() {
+            return this.waiting.size();
+        }
+
+        public long getCompleted() {
+            return this.completed.sum();
+        }
+
+        public long getAverageLatency() {
+            long completed = this.completed.sum();
+            return completed == 0 ? 0 : this.totalLatency.sum() / completed;
+        }
+
+        public long getMaxLatency() {
+            return this.maxLatency.get();
+        }
+
+    }
+
+    private final class TrackedTask implements Runnable {
+
+        private final PluginTasks tasks;
+        private final Runnable runnable;
+        @Nullable private final Runnable onRejected;
+        private final long submitted = System.nanoTime();
+
+        TrackedTask(PluginTasks tasks, Runnable runnable, @Nullable Runnable onRejected) {
+            this.tasks = tasks;
+            this.runnable = runnable;
+            this.onRejected = onRejected;
+        }
+
+        @Override
+        public void run() {
+            long latency = System.nanoTime() - this.submitted;
+            this.tasks.totalLatency.add(latency);
+            this.tasks.maxLatency.accumulateAndGet(latency, Math::max);
+            AsyncTaskExecutor.this.activeTasks.incrementAndGet();
+            try {
+                this.runnable.run();
+            } finally {
+                AsyncTaskExecutor.this.activeTasks.decrementAndGet();
+                this.tasks.completed.increment();
+                finish();
+                submitDeferred();
+            }
+        }
+
+        void reject() {
+            try {
+                if (this.onRejected != null) {
+                    this.onRejected.run();
+                }
+            } finally {
+                finish();
+            }
+        }
+
+        void finish() {
+            TrackedTask next;
+            synchronized (this.tasks) {
+                next = this.tasks.waiting.poll();
+                if (next == null) {
+                    this.tasks.running--;
+                }
+            }
+            if (next != null) {
+                // The slot of this task is handed over to the next one
+                submit(next);
+            }
+        }
+
+    }
+
+}
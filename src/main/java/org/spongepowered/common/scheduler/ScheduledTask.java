@@ -44,11 +44,15 @@ public class ScheduledTask implements Task {
     private final PluginContainer owner;
     private final Consumer<Task> consumer;
     private long timestamp;
-    private ScheduledTaskState state;
+    private volatile ScheduledTaskState state;
     private final UUID id;
     private final String name;
     private final TaskSynchronicity syncType;
     private final String stringRepresentation;
+    // The time the task is due at in the TaskWheel it's currently scheduled in
+    long wheelTime;
+    // The slot of the TaskWheel the task is waiting in, see TaskWheel#remove
+    int wheelSlot = TaskWheel.NONE;
 
     // Internal Task state. Not for user-service use.
     public enum ScheduledTaskState {
@@ -129,7 +133,12 @@ public boolean cancel() {
         if (this.getState() != ScheduledTask.ScheduledTaskState.RUNNING) {
             success = true;
         }
+        ScheduledTaskState previous = this.getState();
         this.setState(ScheduledTask.ScheduledTaskState.CANCELED);
+        if (previous != ScheduledTask.ScheduledTaskState.CANCELED) {
+            // Don't keep the task in its wheel until it would have been due
+            SpongeScheduler.getInstance().cancel(this);
+        }
         return success;
     }
 
@@ -32,13 +32,22 @@
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 abstract class SchedulerBase {
 
     // The simple queue of all pending (and running) ScheduledTasks
     private final Map<UUID, ScheduledTask> taskMap = Maps.newConcurrentMap();
+    // Tasks added since the last tick, these may come from any thread
+    private final Queue<ScheduledTask> addedTasks = new ConcurrentLinkedQueue<>();
+    // Tasks cancelled since the last tick, these may come from any thread
+    private final Queue<ScheduledTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+    // Tasks waiting on real time, in milliseconds
+    private final TaskWheel timeWheel = new TaskWheel(currentMillis());
     private long sequenceNumber = 0L;
     private final String taskNameFmt;
 
@@ -74,6 +83,17 @@ protected long getTimestamp(ScheduledTask task) {
     protected void addTask(ScheduledTask task) {
         task.setTimestamp(this.getTimestamp(task));
         this.taskMap.put(task.getUniqueId(), task);
+        this.addedTasks.add(task);
+    }
+
+    /**
+     * Queues a cancelled task to be removed from its wheel and the task map
+     * on the next call to {@link #runTick}.
+     *
+     * @param task The cancelled task
+     */
+    protected void cancelTask(ScheduledTask task) {
+        this.cancelledTasks.add(task);
     }
 
     /**
@@ -86,28 +106,115 @@ protected void removeTask(ScheduledTask task) {
     }
 
     protected Optional<Task> getTask(UUID id) {
-        return Optional.<Task>ofNullable(this.taskMap.get(id));
+        ScheduledTask task = this.taskMap.get(id);
+        if (task != null && task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            // Cancelled tasks are only removed on the next tick
+            return Optional.empty();
+        }
+        return Optional.<Task>ofNullable(task);
     }
 
     protected Set<Task> getScheduledTasks() {
         synchronized (this.taskMap) {
-            return Sets.<Task>newHashSet(this.taskMap.values());
+            Set<Task> tasks = Sets.newHashSet();
+            for (ScheduledTask task : this.taskMap.values()) {
+                if (task.getState() != ScheduledTask.ScheduledTaskState.CANCELED) {
+                    tasks.add(task);
+                }
+            }
+            return tasks;
         }
     }
 
     /**
-     * Process all tasks in the map.
+     * Process all tasks that are due.
      */
     protected final void runTick() {
         this.preTick();
         try {
-            this.taskMap.values().forEach(this::processTask);
+            ScheduledTask task;
+            while ((task = this.addedTasks.poll()) != null) {
+                if (task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+                    this.removeTask(task);
+                } else {
+                    this.scheduleTask(task);
+                }
+            }
+            // Tasks added above are in their wheels by now, so all of these can be unlinked
+            while ((task = this.cancelledTasks.poll()) != null) {
+                this.unscheduleTask(task);
+                this.removeTask(task);
+            }
+            this.advanceWheels();
             this.postTick();
         } finally {
             this.finallyPostTick();
         }
     }
 
+    /**
+     * Places the task into the wheel matching the unit of its next execution
+     * timestamp.
+     *
+     * @param task The task to schedule
+     */
+    protected void scheduleTask(ScheduledTask task) {
+        // Round up, the task must not be handed out before it is due
+        long nanos = task.nextExecutionTimestamp();
+        this.timeWheel.schedule(task, -Math.floorDiv(-nanos, TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+
+    /**
+     * Removes the task from the wheel it is waiting in, if any.
+     *
+     * @param task The task to remove
+     */
+    protected void unscheduleTask(ScheduledTask task) {
+        this.timeWheel.remove(task);
+    }
+
+    /**
+     * Advances the task wheels to the current time, processing all tasks that
+     * are due.
+     */
+    protected void advanceWheels() {
+        this.timeWheel.advance(currentMillis(), this::processDueTask);
+    }
+
+    /**
+     * Gets the time in nanoseconds until a task may need to be processed.
+     *
+     * @return The time until the next task, {@link Long#MAX_VALUE} if there
+     *     are no tasks
+     */
+    protected long getTimeUntilNextTask() {
+        if (!this.addedTasks.isEmpty() || !this.cancelledTasks.isEmpty()) {
+            return 0;
+        }
+        long next = this.timeWheel.nextTime();
+        if (next == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(next) - System.nanoTime());
+    }
+
+    private static long currentMillis() {
+        return Math.floorDiv(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Processes a task handed out by a wheel, and schedules it again if it is
+     * still in the task map afterwards.
+     *
+     * @param task The task to process
+     */
+    protected final void processDueTask(ScheduledTask task) {
+        this.processTask(task);
+        if (this.taskMap.get(task.getUniqueId()) == task) {
+            this.scheduleTask(task);
+        }
+    }
+
     /**
      * Fired when the scheduler begins to tick, before any tasks are processed.
      */
@@ -171,7 +278,7 @@ protected void processTask(ScheduledTask task) {
      * @param task The task to start
      */
     protected void startTask(final ScheduledTask task) {
-        this.executeTaskRunnable(() -> {
+        this.executeTaskRunnable(task, () -> {
             task.setState(ScheduledTask.ScheduledTaskState.RUNNING);
             try {
                 task.getConsumer().accept(task);
@@ -185,8 +292,9 @@ protected void startTask(final ScheduledTask task) {
     /**
      * Actually run the runnable that will begin the task
      *
+     * @param task The task that is started
      * @param runnable The runnable to run
      */
-    protected abstract void executeTaskRunnable(Runnable runnable);
+    protected abstract void executeTaskRunnable(ScheduledTask task, Runnable runnable);
 
 }
@@ -34,7 +34,6 @@
 import org.spongepowered.api.scheduler.Scheduler;
 import org.spongepowered.api.scheduler.SpongeExecutorService;
 import org.spongepowered.api.scheduler.Task;
-import org.spongepowered.api.util.Functional;
 import org.spongepowered.common.SpongeImpl;
 
 import java.util.Iterator;
@@ -184,6 +183,10 @@ void submit(ScheduledTask task) {
         getDelegate(task).addTask(task);
     }
 
+    void cancel(ScheduledTask task) {
+        getDelegate(task).cancelTask(task);
+    }
+
     /**
      * Ticks the synchronous scheduler.
      */
@@ -191,7 +194,17 @@ public void tickSyncScheduler() {
         this.syncScheduler.tick();
     }
 
+    /**
+     * Gets the executor running the asynchronous tasks, which keeps the
+     * metrics of the asynchronous scheduler.
+     *
+     * @return The asynchronous task executor
+     */
+    public AsyncTaskExecutor getAsyncTaskExecutor() {
+        return this.asyncScheduler.getTaskExecutor();
+    }
+
     public <T> CompletableFuture<T> submitAsyncTask(Callable<T> callable) {
-        return Functional.asyncFailableFuture(callable, this.asyncScheduler.getExecutor());
+        return this.asyncScheduler.getTaskExecutor().submit(SpongeImpl.getPlugin(), callable);
     }
 }
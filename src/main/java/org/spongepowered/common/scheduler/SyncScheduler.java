@@ -28,6 +28,8 @@ public class SyncScheduler extends SchedulerBase {
 
     // The number of ticks elapsed since this scheduler began.
     private volatile long counter = 0L;
+    // Tasks waiting on ticks
+    private final TaskWheel tickWheel = new TaskWheel(0L);
 
     SyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.SYNCHRONOUS);
@@ -43,26 +45,51 @@ void tick() {
 
     @Override
     protected long getTimestamp(ScheduledTask task) {
-        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-            // The timestamp is based on the initial offset
-            if (task.delayIsTicks) {
+        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING || task.getState().isActive) {
+            if (isTickBased(task)) {
                 return this.counter;
             } else {
                 return super.getTimestamp(task);
             }
+        }
+        return 0L;
+    }
+
+    private static boolean isTickBased(ScheduledTask task) {
+        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
+            // The timestamp is based on the initial offset
+            return task.delayIsTicks;
         } else if (task.getState().isActive) {
             // The timestamp is based on the period
-            if (task.intervalIsTicks) {
-                return this.counter;
-            } else {
-                return super.getTimestamp(task);
-            }
+            return task.intervalIsTicks;
         }
-        return 0L;
+        return false;
+    }
+
+    @Override
+    protected void scheduleTask(ScheduledTask task) {
+        if (isTickBased(task)) {
+            this.tickWheel.schedule(task, task.nextExecutionTimestamp());
+        } else {
+            super.scheduleTask(task);
+        }
+    }
+
+    @Override
+    protected void unscheduleTask(ScheduledTask task) {
+        if (!this.tickWheel.remove(task)) {
+            super.unscheduleTask(task);
+        }
+    }
+
+    @Override
+    protected void advanceWheels() {
+        this.tickWheel.advance(this.counter, this::processDueTask);
+        super.advanceWheels();
     }
 
     @Override
-    protected void executeTaskRunnable(Runnable runnable) {
+    protected void executeTaskRunnable(ScheduledTask task, Runnable runnable) {
         runnable.run();
     }
 
@@ -0,0 +1,225 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel of {@link ScheduledTask}s.
+ *
+ * <p>Time is measured in abstract units (ticks or milliseconds, depending on
+ * the owner). Each level has {@link #WHEEL_SIZE} slots and every slot of a
+ * level spans a whole turn of the level below it, so advancing the wheel
+ * only touches the tasks that are due at that moment, plus a cascade of one
+ * higher level slot every {@link #WHEEL_SIZE} units. Tasks further away than
+ * the top level can represent wait in an overflow list.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+final class TaskWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    // The wheel slot of a task waiting in the overflow list
+    static final int OVERFLOW = -1;
+    // The wheel slot of a task that is not waiting in a wheel
+    static final int NONE = -2;
+
+    private final List<List<ScheduledTask>> slots = new ArrayList<>(LEVELS * WHEEL_SIZE);
+    private final int[] counts = new int[LEVELS];
+    private final List<ScheduledTask> overflow = new ArrayList<>();
+    private List<ScheduledTask> processing = new ArrayList<>();
+    // The last point in time that has been fully processed
+    private long currentTime;
+    private int size;
+
+    TaskWheel(long currentTime) {
+        this.currentTime = currentTime;
+        for (int i = 0; i < LEVELS * WHEEL_SIZE; i++) {
+            this.slots.add(new ArrayList<>());
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    long getCurrentTime() {
+        return this.currentTime;
+    }
+
+    /**
+     * Schedules the task to be handed out once the wheel is advanced to the
+     * given time. Times that already passed are handed out on the next
+     * advance.
+     *
+     * @param task The task
+     * @param time The time at which the task is due
+     */
+    void schedule(ScheduledTask task, long time) {
+        task.wheelTime = time;
+        this.size++;
+        insert(task, Math.max(time, this.currentTime + 1));
+    }
+
+    private void insert(ScheduledTask task, long time) {
+        long delta = time - this.currentTime;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (WHEEL_BITS * (level + 1))) {
+                int slot = (int) ((time >> (WHEEL_BITS * level)) & WHEEL_MASK);
+                task.wheelSlot = level * WHEEL_SIZE + slot;
+                this.slots.get(task.wheelSlot).add(task);
+                this.counts[level]++;
+                return;
+            }
+        }
+        task.wheelSlot = OVERFLOW;
+        this.overflow.add(task);
+    }
+
+    /**
+     * Removes a task that is waiting in this wheel, so it is not kept until
+     * its slot comes up.
+     *
+     * @param task The task
+     * @return True if the task was waiting in this wheel
+     */
+    boolean remove(ScheduledTask task) {
+        if (task.wheelSlot == OVERFLOW) {
+            if (!this.overflow.remove(task)) {
+                return false;
+            }
+        } else if (task.wheelSlot >= 0 && this.slots.get(task.wheelSlot).remove(task)) {
+            this.counts[task.wheelSlot / WHEEL_SIZE]--;
+        } else {
+            return false;
+        }
+        task.wheelSlot = NONE;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel up to and including the given time, passing every
+     * task that became due to the consumer. The consumer may schedule tasks
+     * again.
+     *
+     * @param time The time to advance to
+     * @param consumer The consumer of due tasks
+     */
+    void advance(long time, Consumer<ScheduledTask> consumer) {
+        while (this.currentTime < time) {
+            if (this.size == 0) {
+                this.currentTime = time;
+                return;
+            }
+
+            // Skip stretches of time in which no slot holding tasks can come up
+            int lowestLevel = 0;
+            while (lowestLevel < LEVELS && this.counts[lowestLevel] == 0) {
+                lowestLevel++;
+            }
+            if (lowestLevel > 0) {
+                long boundary = ((this.currentTime >> (WHEEL_BITS * lowestLevel)) + 1) << (WHEEL_BITS * lowestLevel);
+                if (boundary > time) {
+                    this.currentTime = time;
+                    return;
+                }
+                this.currentTime = boundary - 1;
+            }
+
+            long now = ++this.currentTime;
+            if ((now & ((1L << (WHEEL_BITS * LEVELS)) - 1)) == 0 && !this.overflow.isEmpty()) {
+                List<ScheduledTask> tasks = new ArrayList<>(this.overflow);
+                this.overflow.clear();
+                for (ScheduledTask task : tasks) {
+                    insert(task, Math.max(task.wheelTime, now));
+                }
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((now & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((now >> (WHEEL_BITS * level)) & WHEEL_MASK), now);
+                }
+            }
+
+            List<ScheduledTask> due = this.slots.get((int) (now & WHEEL_MASK));
+            if (!due.isEmpty()) {
+                // Swap the slot out, the consumer may schedule tasks into it again
+                this.slots.set((int) (now & WHEEL_MASK), this.processing);
+                this.processing = due;
+                this.counts[0] -= due.size();
+                this.size -= due.size();
+                for (ScheduledTask task : due) {
+                    task.wheelSlot = NONE;
+                    consumer.accept(task);
+                }
+                due.clear();
+            }
+        }
+    }
+
+    private void cascade(int level, int slot, long now) {
+        List<ScheduledTask> tasks = this.slots.get(level * WHEEL_SIZE + slot);
+        if (tasks.isEmpty()) {
+            return;
+        }
+        this.counts[level] -= tasks.size();
+        this.slots.set(level * WHEEL_SIZE + slot, new ArrayList<>());
+        for (ScheduledTask task : tasks) {
+            insert(task, Math.max(task.wheelTime, now));
+        }
+    }
+
+    /**
+     * Gets the earliest time at which advancing the wheel may hand out a
+     * task. The returned time may be earlier than the actual due time of
+     * any task, but never later.
+     *
+     * @return The next time of interest, or {@link Long#MAX_VALUE} if the
+     *     wheel is empty
+     */
+    long nextTime() {
+        if (this.size == 0) {
+            return Long.MAX_VALUE;
+        }
+        if (this.counts[0] > 0) {
+            for (long time = this.currentTime + 1; time <= this.currentTime + WHEEL_SIZE; time++) {
+                if (!this.slots.get((int) (time & WHEEL_MASK)).isEmpty()) {
+                    return time;
+                }
+            }
+        }
+        int level = 1;
+        while (level < LEVELS && this.counts[level] == 0) {
+            level++;
+        }
+        return ((this.currentTime >> (WHEEL_BITS * level)) + 1) << (WHEEL_BITS * level);
+    }
+
+}
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.service.permission;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.mojang.authlib.GameProfile;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.service.permission.PermissionService;
@@ -32,6 +34,7 @@
 import org.spongepowered.common.service.permission.base.SpongeSubjectCollection;
 
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 
 /**
  * User collection keeping track of opped users.
@@ -39,6 +42,9 @@
 public class UserCollection extends SpongeSubjectCollection {
 
     private final SpongePermissionService service;
+    // Subjects stay cached as long as they are referenced, for example by an
+    // online player, so their profile doesn't have to be looked up again.
+    private final Cache<UUID, UserSubject> subjects = CacheBuilder.newBuilder().weakValues().build();
 
     public UserCollection(SpongePermissionService service) {
         super(PermissionService.SUBJECTS_USER);
@@ -51,11 +57,20 @@ public Subject get(String identifier) {
         if (uid == null) {
             throw new IllegalArgumentException("Provided identifier must be a uuid, was " + identifier);
         }
-        return get(uuidToGameProfile(uid));
+        UserSubject subject = this.subjects.getIfPresent(uid);
+        if (subject != null) {
+            return subject;
+        }
+        GameProfile profile = uuidToGameProfile(uid);
+        return profile == null ? new UserSubject(null, this) : get(profile);
     }
 
     protected Subject get(GameProfile profile) {
-        return new UserSubject(profile, this);
+        try {
+            return this.subjects.get(profile.getId(), () -> new UserSubject(profile, this));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     private GameProfile uuidToGameProfile(UUID uniqueId) {
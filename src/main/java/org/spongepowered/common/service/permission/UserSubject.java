@@ -46,6 +46,8 @@ public class UserSubject extends SpongeSubject {
     private final GameProfile player;
     private final MemorySubjectData data;
     private final UserCollection collection;
+    // The op level the resolved permissions were cached for
+    private volatile int resolvedOpLevel = -1;
 
     public UserSubject(final GameProfile player, final UserCollection users) {
         this.player = player;
@@ -114,7 +116,18 @@ public MemorySubjectData getSubjectData() {
 
     @Override
     public Tristate getPermissionValue(Set<Context> contexts, String permission) {
-        Tristate ret = super.getPermissionValue(contexts, permission);
+        // The op list can be changed without going through the subject data
+        int opLevel = getOpLevel();
+        if (opLevel != this.resolvedOpLevel) {
+            invalidateOwnResolvedPermissions();
+            this.resolvedOpLevel = opLevel;
+        }
+        return super.getPermissionValue(contexts, permission);
+    }
+
+    @Override
+    protected Tristate resolvePermissionValue(Set<Context> contexts, String permission) {
+        Tristate ret = super.resolvePermissionValue(contexts, permission);
         if (ret == Tristate.UNDEFINED) {
             ret = getDataPermissionValue(this.collection.getService().getDefaultData(), permission);
         }
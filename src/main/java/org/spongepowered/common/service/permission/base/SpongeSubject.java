@@ -31,10 +31,37 @@
 import org.spongepowered.api.util.Tristate;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class SpongeSubject implements Subject {
 
+    // The maximum amount of resolved permissions cached per context set
+    private static final int MAX_RESOLVED_PERMISSIONS = 4096;
+    // Incremented whenever the data of any subject changes, the resolved
+    // value of a permission may depend on the data of all its parents.
+    private static final AtomicInteger dataVersion = new AtomicInteger();
+
+    private volatile ResolvedPermissions resolvedPermissions;
+
+    /**
+     * Invalidates the resolved permissions of all subjects. Must be called
+     * whenever the permissions or parents of a subject change.
+     */
+    public static void invalidateResolvedPermissions() {
+        dataVersion.incrementAndGet();
+    }
+
+    /**
+     * Invalidates the resolved permissions of this subject only, for changes
+     * that can't affect other subjects.
+     */
+    protected void invalidateOwnResolvedPermissions() {
+        this.resolvedPermissions = null;
+    }
+
     @Override
     public SubjectData getTransientSubjectData() {
         return getSubjectData();
@@ -50,6 +77,42 @@ public boolean hasPermission(Set<Context> contexts, String permission) {
 
     @Override
     public Tristate getPermissionValue(Set<Context> contexts, String permission) {
+        ResolvedPermissions resolved = this.resolvedPermissions;
+        final int version = dataVersion.get();
+        if (resolved == null || resolved.version != version) {
+            this.resolvedPermissions = resolved = new ResolvedPermissions(version);
+        }
+        Map<String, Tristate> values = resolved.values.get(contexts);
+        if (values == null) {
+            values = new ConcurrentHashMap<>();
+            Map<String, Tristate> previous = resolved.values.putIfAbsent(contexts, values);
+            if (previous != null) {
+                values = previous;
+            }
+        }
+        Tristate value = values.get(permission);
+        if (value == null) {
+            value = resolvePermissionValue(contexts, permission);
+            // Don't cache values resolved from data that was modified in the meantime
+            if (dataVersion.get() == version) {
+                if (values.size() >= MAX_RESOLVED_PERMISSIONS) {
+                    values.clear();
+                }
+                values.put(permission, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Resolves the value of the permission, without consulting the cache of
+     * resolved permissions.
+     *
+     * @param contexts The contexts to resolve the permission in
+     * @param permission The permission
+     * @return The resolved value
+     */
+    protected Tristate resolvePermissionValue(Set<Context> contexts, String permission) {
         return getDataPermissionValue(getSubjectData(), permission);
     }
 
@@ -82,4 +145,14 @@ public List<Subject> getParents(Set<Context> contexts) {
     public Set<Context> getActiveContexts() {
         return SubjectData.GLOBAL_CONTEXT;
     }
+
+    private static final class ResolvedPermissions {
+
+        final int version;
+        final Map<Set<Context>, Map<String, Tristate>> values = new ConcurrentHashMap<>();
+
+        ResolvedPermissions(int version) {
+            this.version = version;
+        }
+    }
 }
@@ -37,6 +37,8 @@
 import java.util.Optional;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 public class SpongeUserStorageService implements UserStorageService {
 
     public static final String FAKEPLAYER_UUID = "41C82C87-7AfB-4024-BA57-13D2C99CAE77";
@@ -79,6 +81,21 @@ public Collection<GameProfile> getAll() {
         return UserDiscoverer.getAllProfiles();
     }
 
+    /**
+     * Gets a page of the profiles of all known users, ordered by their
+     * unique ids. Unlike {@link #getAll()}, this doesn't include users
+     * that are only cached.
+     *
+     * @param after The unique id after which the page starts, or null to
+     *     start at the first profile
+     * @param limit The maximum amount of profiles
+     * @return The profiles
+     */
+    public Collection<GameProfile> getAll(@Nullable UUID after, int limit) {
+        checkArgument(limit > 0, "limit must be positive");
+        return UserDiscoverer.getProfiles(after, limit);
+    }
+
     @Override
     public boolean delete(GameProfile profile) {
         return UserDiscoverer.delete(checkNotNull(profile, "profile").getUniqueId());
@@ -91,7 +108,11 @@ public boolean delete(User user) {
 
     @Override
     public Collection<GameProfile> match(String lastKnownName) {
-        lastKnownName = checkNotNull(lastKnownName, "lastKnownName").toLowerCase(Locale.ROOT);
+        Collection<GameProfile> indexed = UserDiscoverer.matchProfiles(checkNotNull(lastKnownName, "lastKnownName"));
+        if (indexed != null) {
+            return indexed;
+        }
+        lastKnownName = lastKnownName.toLowerCase(Locale.ROOT);
         Collection<GameProfile> allProfiles = UserDiscoverer.getAllProfiles();
         Collection<GameProfile> matching = Sets.newHashSet();
         for (GameProfile profile : allProfiles) {
@@ -26,6 +26,8 @@
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.mojang.authlib.GameProfile;
 import net.minecraft.nbt.CompressedStreamTools;
@@ -48,9 +50,12 @@
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -58,6 +63,8 @@
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
 class UserDiscoverer {
 
     private static final Cache<UUID, User> userCache = CacheBuilder.newBuilder()
@@ -67,6 +74,10 @@ class UserDiscoverer {
     static User create(GameProfile profile) {
         User user = (User) new SpongeUser(profile);
         userCache.put(profile.getId(), user);
+        UserIndex index = UserIndex.get();
+        if (index != null) {
+            index.updateName(profile.getId(), profile.getName());
+        }
         return user;
     }
 
@@ -101,6 +112,13 @@ static User findByUuid(UUID uniqueId) {
     }
 
     static User findByUsername(String username) {
+        UserIndex index = UserIndex.get();
+        if (index != null) {
+            UUID uniqueId = index.getUniqueId(username);
+            if (uniqueId != null) {
+                return findByUuid(uniqueId);
+            }
+        }
         PlayerProfileCache cache = MinecraftServer.getServer().getPlayerProfileCache();
         HashSet<String> names = Sets.newHashSet(cache.getUsernames());
         if (names.contains(username.toLowerCase(Locale.ROOT))) {
@@ -113,11 +131,20 @@ static User findByUsername(String username) {
     }
 
     static Collection<org.spongepowered.api.profile.GameProfile> getAllProfiles() {
-        Set<org.spongepowered.api.profile.GameProfile> profiles = Sets.newHashSet();
+        // Keyed by the unique id, as the same user may be known under different names
+        Map<UUID, org.spongepowered.api.profile.GameProfile> profiles = Maps.newHashMap();
 
         // Add all cached profiles
         for (User user : userCache.asMap().values()) {
-            profiles.add(user.getProfile());
+            addProfile(profiles, user.getProfile());
+        }
+
+        UserIndex index = UserIndex.get();
+        if (index != null) {
+            for (GameProfile profile : index.getAll()) {
+                addProfile(profiles, (org.spongepowered.api.profile.GameProfile) profile);
+            }
+            return profiles.values();
         }
 
         // Add all known profiles from the data files
@@ -133,20 +160,61 @@ static Collection<org.spongepowered.api.profile.GameProfile> getAllProfiles() {
 
             GameProfile profile = MinecraftServer.getServer().getPlayerProfileCache().getProfileByUUID(UUID.fromString(playerUuid));
             if (profile != null) {
-                profiles.add((org.spongepowered.api.profile.GameProfile) profile);
+                addProfile(profiles, (org.spongepowered.api.profile.GameProfile) profile);
             }
         }
 
         // Add all whitelisted users
         UserListWhitelist whiteList = MinecraftServer.getServer().getConfigurationManager().getWhitelistedPlayers();
         for (UserListWhitelistEntry entry : whiteList.getValues().values()) {
-            profiles.add((org.spongepowered.api.profile.GameProfile) entry.value);
+            addProfile(profiles, (org.spongepowered.api.profile.GameProfile) entry.value);
         }
 
         // Add all banned users
         UserListBans banList = MinecraftServer.getServer().getConfigurationManager().getBannedPlayers();
         for (UserListBansEntry entry : banList.getValues().values()) {
-            profiles.add((org.spongepowered.api.profile.GameProfile) entry.value);
+            addProfile(profiles, (org.spongepowered.api.profile.GameProfile) entry.value);
+        }
+        return profiles.values();
+    }
+
+    private static void addProfile(Map<UUID, org.spongepowered.api.profile.GameProfile> profiles,
+            org.spongepowered.api.profile.GameProfile profile) {
+        // Profiles without a resolved name can't be used to look up the user
+        if (!profile.getName().isPresent() || profile.getName().get().isEmpty()) {
+            return;
+        }
+        profiles.putIfAbsent(profile.getUniqueId(), profile);
+    }
+
+    static Collection<org.spongepowered.api.profile.GameProfile> getProfiles(@Nullable UUID after, int limit) {
+        UserIndex index = UserIndex.get();
+        if (index != null) {
+            return toApiProfiles(index.getPage(after, limit));
+        }
+        return ImmutableList.of();
+    }
+
+    private static List<org.spongepowered.api.profile.GameProfile> toApiProfiles(List<GameProfile> profiles) {
+        List<org.spongepowered.api.profile.GameProfile> apiProfiles = new ArrayList<>(profiles.size());
+        for (GameProfile profile : profiles) {
+            apiProfiles.add((org.spongepowered.api.profile.GameProfile) profile);
+        }
+        return apiProfiles;
+    }
+
+    @Nullable
+    static Collection<org.spongepowered.api.profile.GameProfile> matchProfiles(String lastKnownName) {
+        UserIndex index = UserIndex.get();
+        if (index == null) {
+            return null;
+        }
+        Set<org.spongepowered.api.profile.GameProfile> profiles = Sets.newHashSet(toApiProfiles(index.matchName(lastKnownName)));
+        String lowerName = lastKnownName.toLowerCase(Locale.ROOT);
+        for (User user : userCache.asMap().values()) {
+            if (user.getName().toLowerCase(Locale.ROOT).startsWith(lowerName)) {
+                profiles.add(user.getProfile());
+            }
         }
         return profiles;
     }
@@ -159,6 +227,10 @@ static boolean delete(UUID uniqueId) {
         boolean success = deleteStoredPlayerData(uniqueId);
         success = success && deleteWhitelistEntry(uniqueId);
         success = success && deleteBanlistEntry(uniqueId);
+        UserIndex index = UserIndex.get();
+        if (index != null) {
+            index.remove(uniqueId);
+        }
         return success;
     }
 
@@ -245,13 +317,8 @@ private static User getFromBanlist(UUID uniqueId) {
     private static File getPlayerDataFile(UUID uniqueId) {
         // Note: Uses the overworld's player data
         SaveHandler saveHandler = (SaveHandler) DimensionManager.getWorldFromDimId(0).getSaveHandler();
-        String[] uuids = saveHandler.getAvailablePlayerDat();
-        for (String playerUuid : uuids) {
-            if (uniqueId.toString().equals(playerUuid)) {
-                return new File(saveHandler.playersDirectory, playerUuid + ".dat");
-            }
-        }
-        return null;
+        File dataFile = new File(saveHandler.playersDirectory, uniqueId.toString() + ".dat");
+        return dataFile.isFile() ? dataFile : null;
     }
 
     private static boolean deleteStoredPlayerData(UUID uniqueId) {
@@ -0,0 +1,462 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.user;
+
+import com.google.common.collect.ImmutableList;
+import com.mojang.authlib.GameProfile;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.management.UserListWhitelistEntry;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.storage.SaveHandler;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.service.ban.BanService;
+import org.spongepowered.api.util.ban.Ban;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.world.DimensionManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * An index of all users known to the server, mapping their unique ids to
+ * their last known names and whether they have stored player data or are
+ * whitelisted or banned. The index is stored alongside the overworld and
+ * kept up to date as player data is saved and the whitelist and ban list
+ * change, so users can be looked up without scanning the player data
+ * directory.
+ */
+public final class UserIndex {
+
+    static final int HAS_DATA = 1;
+    static final int WHITELISTED = 2;
+    static final int BANNED = 4;
+
+    private static final String FILE_NAME = "users_sponge.dat";
+    private static final int VERSION = 1;
+
+    private static final Object SAVE_LOCK = new Object();
+
+    @Nullable private static UserIndex instance;
+
+    private final File directory;
+    private final File file;
+    private final NavigableMap<UUID, Entry> entries = new TreeMap<>();
+    // Keyed by the lower case name
+    private final NavigableMap<String, Entry> entriesByName = new TreeMap<>();
+    private boolean dirty;
+
+    UserIndex(File directory) {
+        this.directory = directory;
+        this.file = new File(directory, FILE_NAME);
+    }
+
+    /**
+     * Gets the index of the current overworld, loading or building it first
+     * if required.
+     *
+     * @return The index, or null if the overworld isn't loaded yet
+     */
+    @Nullable
+    static synchronized UserIndex get() {
+        WorldServer world = DimensionManager.getWorldFromDimId(0);
+        if (world == null) {
+            return null;
+        }
+        SaveHandler saveHandler = (SaveHandler) world.getSaveHandler();
+        if (instance != null && instance.directory.equals(saveHandler.getWorldDirectory())) {
+            return instance;
+        }
+        // A different world was loaded without the server stopping
+        if (instance != null) {
+            instance.save();
+        }
+        instance = load(saveHandler);
+        return instance;
+    }
+
+    /**
+     * Saves and releases the index, called once the server has stopped so
+     * the next server started in this process loads the index of its own
+     * world.
+     */
+    public static synchronized void unload() {
+        // Saved before it's released, so a new index never reads an outdated file
+        if (instance != null) {
+            instance.save();
+            instance = null;
+        }
+    }
+
+    private static UserIndex load(SaveHandler saveHandler) {
+        UserIndex index = new UserIndex(saveHandler.getWorldDirectory());
+        if (!index.readStored()) {
+            index.scanPlayerData(saveHandler);
+        }
+        // The whitelist and ban list are in memory, so sync them every time
+        index.syncLists();
+        return index;
+    }
+
+    /**
+     * Called when the data file of a player was written.
+     *
+     * @param profile The profile of the player
+     */
+    public static void onDataSaved(GameProfile profile) {
+        UserIndex index = get();
+        if (index != null) {
+            index.update(profile.getId(), profile.getName(), HAS_DATA, true);
+        }
+    }
+
+    /**
+     * Called when a profile is added to or removed from the whitelist.
+     *
+     * @param profile The profile
+     * @param whitelisted Whether the profile is now whitelisted
+     */
+    public static void onWhitelistChanged(GameProfile profile, boolean whitelisted) {
+        UserIndex index = get();
+        if (index != null) {
+            index.update(profile.getId(), profile.getName(), WHITELISTED, whitelisted);
+        }
+    }
+
+    /**
+     * Called when a profile is banned or pardoned.
+     *
+     * @param profile The profile
+     * @param banned Whether the profile is now banned
+     */
+    public static void onBanChanged(GameProfile profile, boolean banned) {
+        UserIndex index = get();
+        if (index != null) {
+            index.update(profile.getId(), profile.getName(), BANNED, banned);
+        }
+    }
+
+    /**
+     * Saves the index if it was loaded and has changed since it was last
+     * saved.
+     */
+    public static void saveIfDirty() {
+        UserIndex index;
+        synchronized (UserIndex.class) {
+            index = instance;
+        }
+        if (index != null) {
+            index.save();
+        }
+    }
+
+    synchronized void update(UUID uniqueId, @Nullable String name, int flag, boolean set) {
+        Entry entry = this.entries.get(uniqueId);
+        if (entry == null) {
+            if (!set) {
+                return;
+            }
+            entry = new Entry(uniqueId);
+            this.entries.put(uniqueId, entry);
+            this.dirty = true;
+        }
+        setName(entry, name);
+        int flags = set ? entry.flags | flag : entry.flags & ~flag;
+        if (flags != entry.flags) {
+            entry.flags = flags;
+            this.dirty = true;
+        }
+        if (entry.flags == 0) {
+            remove(uniqueId);
+        }
+    }
+
+    /**
+     * Updates the last known name of a user, if the user is indexed.
+     *
+     * @param uniqueId The unique id of the user
+     * @param name The name of the user
+     */
+    synchronized void updateName(UUID uniqueId, @Nullable String name) {
+        Entry entry = this.entries.get(uniqueId);
+        if (entry != null) {
+            setName(entry, name);
+        }
+    }
+
+    private void setName(Entry entry, @Nullable String name) {
+        if (name == null || name.isEmpty() || name.equals(entry.name)) {
+            return;
+        }
+        if (entry.name != null) {
+            this.entriesByName.remove(entry.name.toLowerCase(Locale.ROOT), entry);
+        }
+        entry.name = name;
+        this.entriesByName.put(name.toLowerCase(Locale.ROOT), entry);
+        this.dirty = true;
+    }
+
+    synchronized void remove(UUID uniqueId) {
+        Entry entry = this.entries.remove(uniqueId);
+        if (entry != null) {
+            if (entry.name != null) {
+                this.entriesByName.remove(entry.name.toLowerCase(Locale.ROOT), entry);
+            }
+            this.dirty = true;
+        }
+    }
+
+    @Nullable
+    synchronized UUID getUniqueId(String name) {
+        Entry entry = this.entriesByName.get(name.toLowerCase(Locale.ROOT));
+        return entry == null ? null : entry.uniqueId;
+    }
+
+    synchronized int getFlags(UUID uniqueId) {
+        Entry entry = this.entries.get(uniqueId);
+        return entry == null ? 0 : entry.flags;
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets all indexed profiles whose name is known.
+     *
+     * @return The profiles
+     */
+    synchronized List<GameProfile> getAll() {
+        ImmutableList.Builder<GameProfile> profiles = ImmutableList.builder();
+        for (Entry entry : this.entries.values()) {
+            if (entry.name != null) {
+                profiles.add(entry.toProfile());
+            }
+        }
+        return profiles.build();
+    }
+
+    /**
+     * Gets a page of the indexed profiles, ordered by their unique ids.
+     *
+     * @param after The unique id after which the page starts, or null to
+     *     start at the first profile
+     * @param limit The maximum amount of profiles
+     * @return The profiles
+     */
+    synchronized List<GameProfile> getPage(@Nullable UUID after, int limit) {
+        Collection<Entry> entries = after == null ? this.entries.values() : this.entries.tailMap(after, false).values();
+        List<GameProfile> profiles = new ArrayList<>(Math.min(limit, entries.size()));
+        for (Entry entry : entries) {
+            if (profiles.size() >= limit) {
+                break;
+            }
+            profiles.add(entry.toProfile());
+        }
+        return profiles;
+    }
+
+    synchronized List<GameProfile> matchName(String prefix) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        return toProfiles(this.entriesByName.subMap(lowerPrefix, true, lowerPrefix + Character.MAX_VALUE, true).values());
+    }
+
+    private static List<GameProfile> toProfiles(Collection<Entry> entries) {
+        ImmutableList.Builder<GameProfile> profiles = ImmutableList.builder();
+        for (Entry entry : entries) {
+            profiles.add(entry.toProfile());
+        }
+        return profiles.build();
+    }
+
+    private void scanPlayerData(SaveHandler saveHandler) {
+        SpongeImpl.getLogger().info("Building the user index, this may take a while");
+        for (String playerUuid : saveHandler.getAvailablePlayerDat()) {
+            // Some mods store other files in the 'playerdata' folder, so
+            // we need to ensure that the filename is a valid UUID
+            if (playerUuid.split("-").length != 5) {
+                continue;
+            }
+            UUID uniqueId;
+            try {
+                uniqueId = UUID.fromString(playerUuid);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            GameProfile profile = MinecraftServer.getServer().getPlayerProfileCache().getProfileByUUID(uniqueId);
+            update(uniqueId, profile == null ? null : profile.getName(), HAS_DATA, true);
+        }
+        this.dirty = true;
+    }
+
+    private synchronized void syncLists() {
+        Map<UUID, GameProfile> whitelisted = new HashMap<>();
+        for (UserListWhitelistEntry entry : MinecraftServer.getServer().getConfigurationManager().getWhitelistedPlayers().getValues().values()) {
+            GameProfile profile = entry.value;
+            whitelisted.put(profile.getId(), profile);
+        }
+        Map<UUID, GameProfile> banned = new HashMap<>();
+        for (Ban.Profile ban : Sponge.getServiceManager().provideUnchecked(BanService.class).getProfileBans()) {
+            GameProfile profile = (GameProfile) ban.getProfile();
+            banned.put(profile.getId(), profile);
+        }
+        for (Entry entry : new ArrayList<>(this.entries.values())) {
+            if (!whitelisted.containsKey(entry.uniqueId)) {
+                update(entry.uniqueId, null, WHITELISTED, false);
+            }
+            if (!banned.containsKey(entry.uniqueId)) {
+                update(entry.uniqueId, null, BANNED, false);
+            }
+        }
+        for (GameProfile profile : whitelisted.values()) {
+            update(profile.getId(), profile.getName(), WHITELISTED, true);
+        }
+        for (GameProfile profile : banned.values()) {
+            update(profile.getId(), profile.getName(), BANNED, true);
+        }
+    }
+
+    /**
+     * Reads the stored index, if there is one. An index that can't be read
+     * is discarded so it can be rebuilt.
+     *
+     * @return Whether the stored index was read
+     */
+    synchronized boolean readStored() {
+        if (!this.file.isFile()) {
+            return false;
+        }
+        try {
+            read();
+            return true;
+        } catch (IOException e) {
+            SpongeImpl.getLogger().warn("Failed to read the user index {}, rebuilding it", this.file, e);
+            this.entries.clear();
+            this.entriesByName.clear();
+            return false;
+        }
+    }
+
+    private void read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(this.file.toPath()))))) {
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported user index version " + version);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                Entry entry = new Entry(new UUID(in.readLong(), in.readLong()));
+                entry.flags = in.readByte();
+                String name = in.readUTF();
+                this.entries.put(entry.uniqueId, entry);
+                setName(entry, name);
+            }
+        }
+        this.dirty = false;
+    }
+
+    void save() {
+        // Saves may run on several threads, so take the snapshot and write it
+        // under the same lock to never move an older snapshot over a newer one
+        synchronized (SAVE_LOCK) {
+            List<Entry> entries;
+            synchronized (this) {
+                if (!this.dirty) {
+                    return;
+                }
+                entries = new ArrayList<>(this.entries.size());
+                for (Entry entry : this.entries.values()) {
+                    entries.add(entry.copy());
+                }
+                this.dirty = false;
+            }
+            write(entries);
+        }
+    }
+
+    private void write(List<Entry> entries) {
+        File tempFile = new File(this.file.getParentFile(), FILE_NAME + "_new");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(
+                    Files.newOutputStream(tempFile.toPath()))))) {
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeLong(entry.uniqueId.getMostSignificantBits());
+                    out.writeLong(entry.uniqueId.getLeastSignificantBits());
+                    out.writeByte(entry.flags);
+                    out.writeUTF(entry.name == null ? "" : entry.name);
+                }
+            }
+            Files.move(tempFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            SpongeImpl.getLogger().warn("Failed to save the user index {}", this.file, e);
+            synchronized (this) {
+                this.dirty = true;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final UUID uniqueId;
+        @Nullable String name;
+        int flags;
+
+        Entry(UUID uniqueId) {
+            this.uniqueId = uniqueId;
+        }
+
+        Entry copy() {
+            Entry copy = new Entry(this.uniqueId);
+            copy.name = this.name;
+            copy.flags = this.flags;
+            return copy;
+        }
+
+        GameProfile toProfile() {
+            return new GameProfile(this.uniqueId, this.name);
+        }
+    }
+
+}
@@ -32,6 +32,7 @@
 import org.spongepowered.api.profile.GameProfile;
 import org.spongepowered.api.service.user.UserStorageService;
 import org.spongepowered.api.service.whitelist.WhitelistService;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.util.UserListUtils;
 
 import java.util.ArrayList;
@@ -64,6 +65,7 @@ public boolean isWhitelisted(GameProfile profile) {
     public boolean addProfile(GameProfile profile) {
         boolean wasWhitelisted = this.isWhitelisted(profile);
         UserListUtils.addEntry(this.getWhitelist(), new UserListWhitelistEntry((com.mojang.authlib.GameProfile) profile));
+        UserIndex.onWhitelistChanged((com.mojang.authlib.GameProfile) profile, true);
         return wasWhitelisted;
     }
 
@@ -71,6 +73,7 @@ public boolean addProfile(GameProfile profile) {
     public boolean removeProfile(GameProfile profile) {
         boolean wasWhitelisted = this.isWhitelisted(profile);
         UserListUtils.removeEntry(this.getWhitelist(), profile);
+        UserIndex.onWhitelistChanged((com.mojang.authlib.GameProfile) profile, false);
         return wasWhitelisted;
     }
 
@@ -75,6 +75,17 @@ public static IChatComponent toComponent(Text text) {
         return ((IMixinText) text).toComponent();
     }
 
+    /**
+     * Gets the shared, read-only component of the given text. Intended for
+     * callers that only serialize the component, like outgoing packets.
+     *
+     * @param text The text
+     * @return The shared component, which must not be modified
+     */
+    public static IChatComponent toSharedComponent(Text text) {
+        return ((IMixinText) text).getSharedComponent();
+    }
+
     public static Text toText(IChatComponent component) {
         return ((IMixinChatComponent) component).toText();
     }
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.text.chat;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.S02PacketChat;
+import net.minecraft.util.IChatComponent;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.chat.ChatType;
+import org.spongepowered.api.text.chat.ChatTypes;
+import org.spongepowered.common.interfaces.network.play.server.IMixinS02PacketChat;
+import org.spongepowered.common.interfaces.text.IMixinText;
+import org.spongepowered.common.text.SpongeTexts;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Creates chat packets that share one converted component and one encoded
+ * form between all receivers of the same {@link Text}.
+ *
+ * <p>A message sent through a channel reaches every member as the same
+ * {@link Text} instance, unless the channel transforms it per member. The
+ * component and its JSON are then created for the first member only. Since
+ * translations are resolved by the client, the encoded form doesn't depend
+ * on the receiver.</p>
+ *
+ * <p>The component of the returned packets is shared and must not be
+ * modified.</p>
+ */
+public final class ChatPacketCache {
+
+    // The chat, system and action bar types
+    private static final int CHAT_TYPES = 3;
+
+    // Weak keys compare by identity, texts are immutable
+    private static final Cache<Text, AtomicReferenceArray<SerializedChat>> cache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(1024)
+            .build();
+
+    private ChatPacketCache() {
+    }
+
+    public static S02PacketChat createPacket(Text text, ChatType type) {
+        final byte id = ((SpongeChatType) type).getByteId();
+        if (id < 0 || id >= CHAT_TYPES) {
+            return new S02PacketChat(createComponent(text, type), id);
+        }
+        AtomicReferenceArray<SerializedChat> serialized = cache.getIfPresent(text);
+        if (serialized == null) {
+            serialized = new AtomicReferenceArray<>(CHAT_TYPES);
+            cache.put(text, serialized);
+        }
+        SerializedChat chat = serialized.get(id);
+        if (chat == null) {
+            chat = new SerializedChat(text, type, id);
+            serialized.set(id, chat);
+        }
+        final S02PacketChat packet = new S02PacketChat(chat.component, id);
+        ((IMixinS02PacketChat) packet).setSerializedData(chat.data);
+        return packet;
+    }
+
+    private static IChatComponent createComponent(Text text, ChatType type) {
+        if (type == ChatTypes.ACTION_BAR) {
+            // Reformatting modifies the component, so it needs its own copy
+            return SpongeTexts.fixActionBarFormatting(SpongeTexts.toComponent(text));
+        }
+        return SpongeTexts.toSharedComponent(text);
+    }
+
+    private static final class SerializedChat {
+
+        final IChatComponent component;
+        final byte[] data;
+
+        SerializedChat(Text text, ChatType type, byte id) {
+            this.component = createComponent(text, type);
+            // The JSON of the text itself is cached, action bar messages are reformatted first
+            final String json = type == ChatTypes.ACTION_BAR
+                    ? IChatComponent.Serializer.componentToJson(this.component)
+                    : ((IMixinText) text).toJson();
+            final PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+            buffer.writeString(json);
+            buffer.writeByte(id);
+            this.data = new byte[buffer.readableBytes()];
+            buffer.readBytes(this.data);
+        }
+    }
+
+}
@@ -28,9 +28,12 @@
 import static org.spongepowered.common.util.OptionalUtils.asSet;
 
 import com.flowpowered.math.vector.Vector3d;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.MathHelper;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.data.manipulator.mutable.DisplayNameData;
 import org.spongepowered.api.data.manipulator.mutable.entity.ExperienceHolderData;
@@ -60,17 +63,22 @@
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.extent.Extent;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.world.IMixinWorld;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 /**
  * A resolver that acts like Vanilla Minecraft in many regards.
  */
@@ -82,6 +90,9 @@ public class SelectorResolver {
     private static final Set<ArgumentType<?>> LOCATION_BASED_ARGUMENTS;
     private static final Function<Number, Double> TO_DOUBLE = Number::doubleValue;
     private static final Collection<SelectorType> INFINITE_TYPES = ImmutableSet.of(SelectorTypes.ALL_ENTITIES, SelectorTypes.ALL_PLAYERS);
+    // Larger areas are cheaper to search by walking the loaded entities
+    private static final long MAX_SEARCH_CHUNKS = 1024;
+    private static final double UNBOUNDED_SEARCH_Y = 1.0E9;
 
     static {
         ImmutableSet.Builder<ArgumentType<?>> builder = ImmutableSet.builder();
@@ -116,6 +127,9 @@ private static <I, R> Predicate<I> requireTypePredicate(Class<I> inputType, fina
     private final Optional<CommandSource> original;
     private final Selector selector;
     private final Predicate<Entity> selectorFilter;
+    private final boolean playerOnly;
+    @Nullable private final AxisAlignedBB searchBox;
+    @Nullable private final EntityType searchType;
     private final boolean alwaysUsePosition;
 
     public SelectorResolver(Collection<? extends Extent> extents, Selector selector, boolean force) {
@@ -136,7 +150,11 @@ private SelectorResolver(Collection<? extends Extent> extents, Vector3d position
         this.position = position == null ? ORIGIN : position;
         this.original = Optional.ofNullable(original);
         this.selector = checkNotNull(selector);
+        this.playerOnly = isPlayerOnlySelector();
         this.selectorFilter = makeFilter();
+        this.searchBox = makeSearchBox();
+        Optional<Invertible<EntityType>> type = selector.getArgument(ArgumentTypes.ENTITY_TYPE);
+        this.searchType = type.isPresent() && !type.get().isInverted() ? type.get().getValue() : null;
         this.alwaysUsePosition = force;
     }
 
@@ -154,18 +172,79 @@ private Predicate<Entity> makeFilter() {
         addRotationFilters(filters);
         addTeamFilters(filters);
         addScoreFilters(filters);
+        if (this.playerOnly) {
+            // insert at the start so it applies first
+            filters.add(0, requireTypePredicate(Entity.class, Player.class));
+        }
+        return Functional.predicateAnd(filters);
+    }
+
+    private boolean isPlayerOnlySelector() {
+        final Selector sel = this.selector;
         SelectorType selectorType = sel.getType();
         Optional<Invertible<EntityType>> type = sel.getArgument(ArgumentTypes.ENTITY_TYPE);
         // isn't an ALL_ENTITIES selector or it is a RANDOM selector for only players
-        boolean isPlayerOnlySelector =
-            selectorType == SelectorTypes.ALL_PLAYERS || selectorType == SelectorTypes.NEAREST_PLAYER
+        return selectorType == SelectorTypes.ALL_PLAYERS || selectorType == SelectorTypes.NEAREST_PLAYER
                 || (selectorType == SelectorTypes.RANDOM && type.isPresent() && !type.get().isInverted()
                 && type.get().getValue() != EntityTypes.PLAYER);
-        if (isPlayerOnlySelector) {
-            // insert at the start so it applies first
-            filters.add(0, requireTypePredicate(Entity.class, Player.class));
+    }
+
+    /**
+     * Creates the box every selected entity has to be in, based on the radius
+     * and volume arguments. Only the chunks intersecting it have to be
+     * searched.
+     *
+     * @return The search box, or null if the whole extent has to be searched
+     */
+    @Nullable
+    private AxisAlignedBB makeSearchBox() {
+        final Selector sel = this.selector;
+        Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
+        double minX = Double.NEGATIVE_INFINITY;
+        double minY = -UNBOUNDED_SEARCH_Y;
+        double minZ = Double.NEGATIVE_INFINITY;
+        double maxX = Double.POSITIVE_INFINITY;
+        double maxY = UNBOUNDED_SEARCH_Y;
+        double maxZ = Double.POSITIVE_INFINITY;
+
+        Optional<Integer> radiusMax = sel.get(ArgumentTypes.RADIUS.maximum());
+        if (radiusMax.isPresent()) {
+            double radius = radiusMax.get();
+            minX = position.getX() - radius;
+            minY = position.getY() - radius;
+            minZ = position.getZ() - radius;
+            maxX = position.getX() + radius;
+            maxY = position.getY() + radius;
+            maxZ = position.getZ() + radius;
         }
-        return Functional.predicateAnd(filters);
+
+        // Same volume as the dimension filters
+        Vector3d boxDimensions = getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION);
+        Vector3d boxMin = position.min(position.add(boxDimensions));
+        Vector3d boxMax = position.max(position.add(boxDimensions));
+        if (sel.has(ArgumentTypes.DIMENSION.x())) {
+            minX = Math.max(minX, boxMin.getX());
+            maxX = Math.min(maxX, boxMax.getX());
+        }
+        if (sel.has(ArgumentTypes.DIMENSION.y())) {
+            minY = Math.max(minY, boxMin.getY());
+            maxY = Math.min(maxY, boxMax.getY());
+        }
+        if (sel.has(ArgumentTypes.DIMENSION.z())) {
+            minZ = Math.max(minZ, boxMin.getZ());
+            maxZ = Math.min(maxZ, boxMax.getZ());
+        }
+
+        if (Double.isInfinite(minX) || Double.isInfinite(maxX) || Double.isInfinite(minZ) || Double.isInfinite(maxZ)) {
+            return null;
+        }
+        long chunksX = (MathHelper.floor_double(maxX) >> 4) - (MathHelper.floor_double(minX) >> 4) + 1L;
+        long chunksZ = (MathHelper.floor_double(maxZ) >> 4) - (MathHelper.floor_double(minZ) >> 4) + 1L;
+        if (chunksX * chunksZ > MAX_SEARCH_CHUNKS) {
+            return null;
+        }
+        // Entities are matched by their bounding box, the padding keeps entities exactly on the edge
+        return new AxisAlignedBB(minX, minY, minZ, maxX, maxY, maxZ).expand(1, 1, 1);
     }
 
     private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>> filters) {
@@ -348,30 +427,73 @@ public Set<Entity> resolve() {
         }
         int maxToSelect = this.selector.get(ArgumentTypes.COUNT).orElse(defaultCount);
         Set<? extends Extent> extents = getExtentSet();
+        if (selectorType == SelectorTypes.RANDOM && maxToSelect != 0) {
+            return resolveRandom(extents, Math.max(maxToSelect, 1));
+        }
         int count = 0;
         ImmutableSet.Builder<Entity> entities = ImmutableSet.builder();
         for (Extent extent : extents) {
-            Collection<Entity> allEntities = extent.getEntities();
-            if (selectorType == SelectorTypes.RANDOM) {
-                List<Entity> entityList = new ArrayList<>(allEntities);
-                Collections.shuffle(entityList);
-                allEntities = entityList;
-            }
-
-            for (Entity e : allEntities) {
+            for (Entity e : getCandidates(extent)) {
                 if (!this.selectorFilter.test(e)) {
                     continue;
                 }
                 entities.add(e);
                 count++;
-                if (maxToSelect != 0 && count > maxToSelect) {
-                    break;
+                if (maxToSelect != 0 && count >= maxToSelect) {
+                    return entities.build();
                 }
             }
         }
         return entities.build();
     }
 
+    private Set<Entity> resolveRandom(Set<? extends Extent> extents, int maxToSelect) {
+        // Reservoir sampling, every matching entity has the same chance without shuffling all of them
+        final Random random = ThreadLocalRandom.current();
+        final List<Entity> selected = new ArrayList<>(Math.min(maxToSelect, 16));
+        int matched = 0;
+        for (Extent extent : extents) {
+            for (Entity e : getCandidates(extent)) {
+                if (!this.selectorFilter.test(e)) {
+                    continue;
+                }
+                if (matched < maxToSelect) {
+                    selected.add(e);
+                } else {
+                    int index = random.nextInt(matched + 1);
+                    if (index < maxToSelect) {
+                        selected.set(index, e);
+                    }
+                }
+                matched++;
+            }
+        }
+        return ImmutableSet.copyOf(selected);
+    }
+
+    /**
+     * Gets the entities of the extent that could match the selector, without
+     * copying the loaded entity list of worlds.
+     */
+    @SuppressWarnings("unchecked")
+    private Iterable<Entity> getCandidates(Extent extent) {
+        if (!(extent instanceof net.minecraft.world.World)) {
+            return extent.getEntities();
+        }
+        final net.minecraft.world.World world = (net.minecraft.world.World) extent;
+        if (this.playerOnly) {
+            return (List<Entity>) (List<?>) world.playerEntities;
+        }
+        if (this.searchBox != null) {
+            return (List<Entity>) (List<?>) world.getEntitiesWithinAABB(net.minecraft.entity.Entity.class, this.searchBox,
+                    Predicates.alwaysTrue());
+        }
+        if (this.searchType != null) {
+            return ((IMixinWorld) world).getEntitiesView(this.searchType);
+        }
+        return ((IMixinWorld) world).getEntitiesView();
+    }
+
     private Set<? extends Extent> getExtentSet() {
         if (!this.alwaysUsePosition && Collections.disjoint(getArgumentTypes(this.selector.getArguments()), LOCATION_BASED_ARGUMENTS)) {
             return ImmutableSet.copyOf(SpongeImpl.getGame().getServer().getWorlds());
@@ -30,16 +30,25 @@
 import com.flowpowered.math.GenericMath;
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.nbt.NBTTagCompound;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.slf4j.Logger;
+import org.spongepowered.api.Sponge;
 import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.WorldBorder;
+import org.spongepowered.api.world.gen.WorldGenerator;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
 import org.spongepowered.common.scheduler.SpongeScheduler;
+import org.spongepowered.common.world.gen.SpongeChunkProvider;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import javax.annotation.Nullable;
 
@@ -138,7 +147,7 @@ public String toString() {
             '}';
     }
 
-    private static class ChunkPreGenerator implements Consumer<Task> {
+    static class ChunkPreGenerator implements Consumer<Task> {
 
         private static final Vector3i[] OFFSETS = {
             Vector3i.UNIT_Z.negate().mul(2),
@@ -147,12 +156,26 @@ private static class ChunkPreGenerator implements Consumer<Task> {
             Vector3i.UNIT_X.negate().mul(2)
         };
         private static final String TIME_FORMAT = "s's 'S'ms'";
+        private static final String POSITION_X = "PositionX";
+        private static final String POSITION_Z = "PositionZ";
+        private static final String GEN_COUNT = "GenCount";
+        private static final String LAYER = "Layer";
+        private static final String INDEX = "Index";
+        private static final String NEXT_JUMP = "NextJump";
+        private static final String TOTAL_COUNT = "TotalCount";
+        private static final String TOTAL_TIME = "TotalTime";
         private final World world;
         private final int chunkRadius;
         private final int chunkCount;
         private final float tickPercent;
         private final long tickTimeLimit;
+        private final long fullTickTime;
+        private final String progressKey;
         @Nullable private final Logger logger;
+        private final BooleanSupplier throughputMode;
+        private final LongSupplier clock;
+        private long startTime;
+        private int startCount;
         private Vector3i currentPosition;
         private int currentGenCount;
         private int currentLayer;
@@ -162,12 +185,21 @@ private static class ChunkPreGenerator implements Consumer<Task> {
         private long totalTime;
 
         ChunkPreGenerator(World world, Vector3d center, double diameter, int chunkCount, float tickPercent, @Nullable Logger logger) {
+            this(world, center, diameter, chunkCount, tickPercent, logger, SpongeScheduler.getInstance().getPreferredTickInterval(),
+                ChunkPreGenerator::isThroughputMode, System::currentTimeMillis);
+        }
+
+        ChunkPreGenerator(World world, Vector3d center, double diameter, int chunkCount, float tickPercent, @Nullable Logger logger,
+            long fullTickTime, BooleanSupplier throughputMode, LongSupplier clock) {
             this.world = world;
             this.chunkRadius = GenericMath.floor(diameter / 32);
             this.chunkCount = chunkCount;
             this.tickPercent = tickPercent;
             this.logger = logger;
-            this.tickTimeLimit = Math.round(SpongeScheduler.getInstance().getPreferredTickInterval() * tickPercent);
+            this.throughputMode = throughputMode;
+            this.clock = clock;
+            this.fullTickTime = fullTickTime;
+            this.tickTimeLimit = Math.round(this.fullTickTime * tickPercent);
             final Optional<Vector3i> currentPosition = SpongeChunkLayout.instance.toChunk(center.toInt());
             if (currentPosition.isPresent()) {
                 this.currentPosition = currentPosition.get();
@@ -180,38 +212,157 @@ private static class ChunkPreGenerator implements Consumer<Task> {
             this.nextJump = 0;
             this.totalCount = 0;
             this.totalTime = 0;
+            this.progressKey = this.currentPosition.getX() + "," + this.currentPosition.getZ() + "," + this.chunkRadius;
+            loadProgress();
         }
 
         @Override
         public void accept(Task task) {
-            final long startTime = System.currentTimeMillis();
+            final long startTime = this.clock.getAsLong();
+            if (this.startTime == 0) {
+                this.startTime = startTime;
+                this.startCount = this.totalCount;
+            }
+            final boolean throughputMode = this.throughputMode.getAsBoolean();
             int count = 0;
+            int positions = 0;
             do {
                 count += this.currentGenCount;
+                positions++;
                 final Vector3i position = nextChunkPosition();
                 this.world.loadChunk(position, true);
                 this.world.loadChunk(position.sub(Vector3i.UNIT_X), true);
                 this.world.loadChunk(position.sub(Vector3i.UNIT_Z), true);
                 this.world.loadChunk(position.sub(Vector3i.UNIT_X).sub(Vector3i.UNIT_Z), true);
-            } while (hasNextChunkPosition() && checkChunkCount(count) && checkTickTime(System.currentTimeMillis() - startTime));
+            } while (hasNextChunkPosition() && (throughputMode || checkChunkCount(count))
+                && checkTickTime(this.clock.getAsLong() - startTime, throughputMode));
+            // Without players online the worker may fill the whole look-ahead queue
+            queueUpcomingChunks(throughputMode ? Integer.MAX_VALUE : positions);
+            this.totalCount += count;
+            final long deltaTime = this.clock.getAsLong() - startTime;
+            this.totalTime += deltaTime;
             if (this.logger != null) {
-                this.totalCount += count;
-                final long deltaTime = System.currentTimeMillis() - startTime;
-                this.totalTime += deltaTime;
-                this.logger.info("Generated {} chunks in {}, {}% complete", count,
+                this.logger.info("Generated {} chunks in {}, {}% complete, {} chunks/s", count,
                     DurationFormatUtils.formatDuration(deltaTime, TIME_FORMAT, false),
-                    GenericMath.floor(this.totalCount / Math.pow(this.chunkRadius * 2 + 1, 2) * 100)
+                    GenericMath.floor(this.totalCount / Math.pow(this.chunkRadius * 2 + 1, 2) * 100),
+                    getThroughput()
                 );
             }
             if (!hasNextChunkPosition()) {
+                getProgressCompound().removeTag(this.progressKey);
                 if (this.logger != null) {
-                    this.logger.info("Done! Generated a total of {} chunks in {}", this.totalCount,
-                        DurationFormatUtils.formatDuration(this.totalTime, TIME_FORMAT, false));
+                    this.logger.info("Done! Generated a total of {} chunks in {}, {} chunks/s", this.totalCount,
+                        DurationFormatUtils.formatDuration(this.totalTime, TIME_FORMAT, false), getThroughput());
                 }
                 task.cancel();
+            } else {
+                saveProgress();
             }
         }
 
+        /**
+         * Gets whether the chunk limits may be ignored because nobody is
+         * affected by long ticks.
+         *
+         * @return True if no players are online and throughput mode is enabled
+         */
+        private static boolean isThroughputMode() {
+            return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useChunkPreGenerateThroughputMode()
+                && Sponge.getServer().getOnlinePlayers().isEmpty();
+        }
+
+        /**
+         * Gets the amount of chunks generated per second of real time since
+         * this generator was started or resumed, including the ticks it was
+         * waiting for its next run.
+         *
+         * @return The formatted throughput
+         */
+        private String getThroughput() {
+            final long elapsed = this.clock.getAsLong() - this.startTime;
+            return String.format("%.1f", elapsed <= 0 ? 0 : (this.totalCount - this.startCount) * 1000.0 / elapsed);
+        }
+
+        private NBTTagCompound getProgressCompound() {
+            final NBTTagCompound spongeNbt = ((IMixinWorldInfo) this.world.getProperties()).getSpongeNbt();
+            return NbtDataUtil.getOrCreateSubCompound(spongeNbt, NbtDataUtil.CHUNK_PRE_GENERATE);
+        }
+
+        /**
+         * Continues where a generator with the same center and radius stopped
+         * before the last shutdown. The progress is stored with the level
+         * data of the world, so it is written whenever the world is saved.
+         *
+         * <p>The progress is only removed once the generator finishes. It is
+         * kept when the task is cancelled, so the generation can be resumed
+         * later by starting a generator with the same center and radius.</p>
+         */
+        private void loadProgress() {
+            final NBTTagCompound progressCompound = getProgressCompound();
+            if (!progressCompound.hasKey(this.progressKey, NbtDataUtil.TAG_COMPOUND)) {
+                return;
+            }
+            final NBTTagCompound progress = progressCompound.getCompoundTag(this.progressKey);
+            this.currentPosition = new Vector3i(progress.getInteger(POSITION_X), 0, progress.getInteger(POSITION_Z));
+            this.currentGenCount = progress.getInteger(GEN_COUNT);
+            this.currentLayer = progress.getInteger(LAYER);
+            this.currentIndex = progress.getInteger(INDEX);
+            this.nextJump = progress.getInteger(NEXT_JUMP);
+            this.totalCount = progress.getInteger(TOTAL_COUNT);
+            this.totalTime = progress.getLong(TOTAL_TIME);
+            if (this.logger != null) {
+                this.logger.info("Resuming chunk pre-generation at {}% complete",
+                    GenericMath.floor(this.totalCount / Math.pow(this.chunkRadius * 2 + 1, 2) * 100));
+            }
+        }
+
+        private void saveProgress() {
+            final NBTTagCompound progress = new NBTTagCompound();
+            progress.setInteger(POSITION_X, this.currentPosition.getX());
+            progress.setInteger(POSITION_Z, this.currentPosition.getZ());
+            progress.setInteger(GEN_COUNT, this.currentGenCount);
+            progress.setInteger(LAYER, this.currentLayer);
+            progress.setInteger(INDEX, this.currentIndex);
+            progress.setInteger(NEXT_JUMP, this.nextJump);
+            progress.setInteger(TOTAL_COUNT, this.totalCount);
+            progress.setLong(TOTAL_TIME, this.totalTime);
+            getProgressCompound().setTag(this.progressKey, progress);
+        }
+
+        /**
+         * Queues the terrain of the chunks of the next run to be generated in
+         * between ticks, if asynchronous chunk generation is enabled.
+         *
+         * @param amount The amount of spiral positions to look ahead
+         */
+        private void queueUpcomingChunks(int amount) {
+            final WorldGenerator generator = this.world.getWorldGenerator();
+            if (!(generator instanceof SpongeChunkProvider)) {
+                return;
+            }
+            final SpongeChunkProvider chunkProvider = (SpongeChunkProvider) generator;
+            // Walk the spiral ahead without consuming it
+            final Vector3i position = this.currentPosition;
+            final int genCount = this.currentGenCount;
+            final int layer = this.currentLayer;
+            final int index = this.currentIndex;
+            final int jump = this.nextJump;
+            for (int i = 0; i < amount && hasNextChunkPosition(); i++) {
+                final Vector3i next = nextChunkPosition();
+                if (!chunkProvider.queueGeneration(next.getX(), next.getZ())
+                        || !chunkProvider.queueGeneration(next.getX() - 1, next.getZ())
+                        || !chunkProvider.queueGeneration(next.getX(), next.getZ() - 1)
+                        || !chunkProvider.queueGeneration(next.getX() - 1, next.getZ() - 1)) {
+                    break;
+                }
+            }
+            this.currentPosition = position;
+            this.currentGenCount = genCount;
+            this.currentLayer = layer;
+            this.currentIndex = index;
+            this.nextJump = jump;
+        }
+
         private boolean hasNextChunkPosition() {
             return this.currentLayer <= this.chunkRadius;
         }
@@ -242,7 +393,10 @@ private boolean checkChunkCount(int count) {
             return this.chunkCount <= 0 || count < this.chunkCount;
         }
 
-        private boolean checkTickTime(long tickTime) {
+        private boolean checkTickTime(long tickTime, boolean throughputMode) {
+            if (throughputMode) {
+                return tickTime < this.fullTickTime;
+            }
             return this.tickPercent <= 0 || tickTime < this.tickTimeLimit;
         }
 
@@ -0,0 +1,174 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.collect.Maps;
+import net.minecraft.entity.player.EntityPlayer;
+import org.spongepowered.api.entity.living.player.User;
+import org.spongepowered.api.profile.GameProfile;
+import org.spongepowered.api.service.user.UserStorageService;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
+import org.spongepowered.common.scheduler.SpongeScheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Resolves the player indexes tracked by the chunks of a world to their
+ * {@link User}s without scanning the player list or touching the disk.
+ *
+ * <p>Online players are looked up by unique id. Offline users are resolved
+ * through the {@link UserStorageService} on the async scheduler, as that may
+ * read player data or look up the profile, and are unknown until resolved.
+ * Failed lookups are retried after a delay. At most
+ * {@link #MAX_OFFLINE_USERS} resolved users are kept, evicting the least
+ * recently used.</p>
+ *
+ * <p>This cache may only be used from the main thread.</p>
+ */
+public final class TrackedUserCache {
+
+    private static final int MAX_OFFLINE_USERS = 512;
+    // The amount of ticks to wait before looking up a user again after a failed lookup
+    private static final int RETRY_DELAY_TICKS = 200;
+    private static final long LOOKUP_PENDING = Long.MAX_VALUE;
+
+    private final net.minecraft.world.World world;
+    private final Map<UUID, EntityPlayer> onlinePlayers = Maps.newHashMap();
+    private final Queue<LookupResult> lookupResults = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, User> offlineUsers = new LinkedHashMap<Integer, User>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, User> eldest) {
+            return size() > MAX_OFFLINE_USERS;
+        }
+    };
+    // The world time from which an unresolved user may be looked up, or LOOKUP_PENDING
+    private final Map<Integer, Long> nextLookups = Maps.newHashMap();
+    // Incremented when the cache is cleared, so lookups started before are ignored
+    private int generation;
+
+    public TrackedUserCache(net.minecraft.world.World world) {
+        this.world = world;
+    }
+
+    public void onPlayerAdded(EntityPlayer player) {
+        this.onlinePlayers.put(player.getUniqueID(), player);
+    }
+
+    public void onPlayerRemoved(EntityPlayer player) {
+        this.onlinePlayers.remove(player.getUniqueID(), player);
+    }
+
+    /**
+     * Clears all resolved users, called when the world is unloaded.
+     */
+    public void clear() {
+        this.offlineUsers.clear();
+        this.nextLookups.clear();
+        this.lookupResults.clear();
+        this.generation++;
+    }
+
+    /**
+     * Gets the user with the given tracked index.
+     *
+     * @param index The index from the world info, or -1
+     * @return The user, if the index is known and the user was resolved
+     */
+    public Optional<User> getUser(int index) {
+        if (index < 0) {
+            return Optional.empty();
+        }
+        Optional<UUID> uniqueId = ((IMixinWorldInfo) this.world.getWorldInfo()).getUniqueIdForIndex(index);
+        if (!uniqueId.isPresent()) {
+            return Optional.empty();
+        }
+        EntityPlayer player = this.onlinePlayers.get(uniqueId.get());
+        if (player != null) {
+            return Optional.of((User) player);
+        }
+
+        LookupResult result;
+        while ((result = this.lookupResults.poll()) != null) {
+            if (result.generation != this.generation) {
+                continue;
+            }
+            if (result.user != null) {
+                this.nextLookups.remove(result.index);
+                this.offlineUsers.put(result.index, result.user);
+            } else {
+                this.nextLookups.put(result.index, this.world.getTotalWorldTime() + RETRY_DELAY_TICKS);
+            }
+        }
+        User user = this.offlineUsers.get(index);
+        if (user == null) {
+            lookup(index, uniqueId.get());
+        }
+        return Optional.ofNullable(user);
+    }
+
+    private void lookup(int index, UUID uniqueId) {
+        Long nextLookup = this.nextLookups.get(index);
+        if (nextLookup != null && nextLookup > this.world.getTotalWorldTime()) {
+            // Already looking it up, or waiting to retry
+            return;
+        }
+        this.nextLookups.put(index, LOOKUP_PENDING);
+        int generation = this.generation;
+        // A rejected lookup is retried like a failed one
+        SpongeScheduler.getInstance().getAsyncTaskExecutor().execute(SpongeImpl.getPlugin(), () -> {
+            User user = null;
+            try {
+                user = SpongeImpl.getGame().getServiceManager().provideUnchecked(UserStorageService.class)
+                        .getOrCreate(GameProfile.of(uniqueId, null));
+            } catch (Exception e) {
+                SpongeImpl.getLogger().warn("Failed to resolve the user {} of tracked blocks", uniqueId, e);
+            }
+            this.lookupResults.add(new LookupResult(generation, index, user));
+        }, () -> this.lookupResults.add(new LookupResult(generation, index, null)));
+    }
+
+    private static final class LookupResult {
+
+        final int generation;
+        final int index;
+        @Nullable final User user;
+
+        LookupResult(int generation, int index, @Nullable User user) {
+            this.generation = generation;
+            this.index = index;
+            this.user = user;
+        }
+    }
+
+}
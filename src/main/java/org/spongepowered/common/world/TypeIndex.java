@@ -0,0 +1,75 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups values by a type key, kept up to date as values are added and
+ * removed. Lookups return live read-only views, so querying a type does not
+ * copy anything.
+ *
+ * @param <K> The type key, compared by identity
+ * @param <V> The value type
+ */
+public final class TypeIndex<K, V> {
+
+    private final Map<K, Bucket<V>> buckets = new IdentityHashMap<>();
+
+    public void add(K key, V value) {
+        this.buckets.computeIfAbsent(key, k -> new Bucket<>()).values.add(value);
+    }
+
+    public void remove(K key, V value) {
+        final Bucket<V> bucket = this.buckets.get(key);
+        if (bucket != null) {
+            bucket.values.remove(value);
+        }
+    }
+
+    /**
+     * Gets a read-only view of the values of a type. The view reflects later
+     * changes to the index and must not be iterated while it is modified.
+     *
+     * @param key The type key
+     * @return The values of the type
+     */
+    public Collection<V> get(K key) {
+        return this.buckets.computeIfAbsent(key, k -> new Bucket<>()).view;
+    }
+
+    private static final class Bucket<V> {
+
+        final Set<V> values = new LinkedHashSet<>();
+        final Collection<V> view = Collections.unmodifiableSet(this.values);
+
+    }
+
+}
@@ -0,0 +1,355 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.common.SpongeImpl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates the terrain of chunks ahead of demand on a worker thread, so the
+ * main thread only has to assemble and populate them once they are loaded.
+ *
+ * <p>Vanilla terrain generators and the biome layer caches are not safe to
+ * use from several threads at once, so generation never runs concurrently
+ * with a server tick or with another generation. The worker only generates
+ * while the main thread is waiting for the next tick, and a tick waits for
+ * the chunk that is currently being generated to finish before it starts.</p>
+ *
+ * <p>Every pipeline holds a bounded amount of queued and generated chunks.
+ * Chunks that are requested by the main thread before the worker reached
+ * them are removed from the queue and generated synchronously instead.
+ * Generated chunks that are not requested within the expiry time are
+ * discarded, so look-ahead that turned out to be wrong frees its space.</p>
+ *
+ * @param <T> The type of the generated terrain
+ */
+public final class ChunkGenerationPipeline<T> {
+
+    private static final ReentrantLock lock = new ReentrantLock(true);
+    private static final Condition serverIdleCondition = lock.newCondition();
+    private static final Set<ChunkGenerationPipeline<?>> pipelines = Collections.newSetFromMap(new WeakHashMap<>());
+    private static boolean serverIdle;
+    @Nullable private static Thread worker;
+
+    private final Source<T> source;
+    private final int capacity;
+    private final long expiryTicks;
+    private final Set<Long> queued = new LinkedHashSet<>();
+    private final Map<Long, Generated<T>> generated = new LinkedHashMap<>();
+    private long ticks;
+    private volatile long hits;
+    private volatile long misses;
+
+    public ChunkGenerationPipeline(Source<T> source, int capacity, long expiryTicks) {
+        checkArgument(capacity > 0, "capacity must be greater than zero");
+        checkArgument(expiryTicks > 0, "expiryTicks must be greater than zero");
+        this.source = checkNotNull(source, "source");
+        this.capacity = capacity;
+        this.expiryTicks = expiryTicks;
+        lock.lock();
+        try {
+            pipelines.add(this);
+            if (worker == null) {
+                worker = new Thread(ChunkGenerationPipeline::runWorker, "Sponge Chunk Generator");
+                worker.setDaemon(true);
+                worker.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the terrain of the given chunk to be generated by the worker,
+     * unless the source reports that it doesn't need to be generated.
+     *
+     * @param chunkX The chunk x position
+     * @param chunkZ The chunk z position
+     * @return False if the pipeline is full
+     */
+    public boolean queue(int chunkX, int chunkZ) {
+        final long key = toKey(chunkX, chunkZ);
+        lock.lock();
+        try {
+            if (this.queued.contains(key) || this.generated.containsKey(key)) {
+                return true;
+            }
+            if (this.queued.size() + this.generated.size() >= this.capacity) {
+                return false;
+            }
+            if (this.source.needsGeneration(chunkX, chunkZ)) {
+                this.queued.add(key);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the generated terrain of the given chunk out of the pipeline. If
+     * it wasn't generated yet it is removed from the queue, the caller is
+     * then expected to generate it.
+     *
+     * @param chunkX The chunk x position
+     * @param chunkZ The chunk z position
+     * @return The generated terrain, if available
+     */
+    @Nullable
+    public T take(int chunkX, int chunkZ) {
+        final long key = toKey(chunkX, chunkZ);
+        lock.lock();
+        try {
+            this.queued.remove(key);
+            final Generated<T> generated = this.generated.remove(key);
+            if (generated != null) {
+                this.hits++;
+                return generated.terrain;
+            }
+            this.misses++;
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards all queued and generated terrain, used when the generator
+     * settings change.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            this.queued.clear();
+            this.generated.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedCount() {
+        lock.lock();
+        try {
+            return this.queued.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getGeneratedCount() {
+        lock.lock();
+        try {
+            return this.generated.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    private void scheduleLookAhead() {
+        this.ticks++;
+        // Generated entries are ordered by age, the oldest come first
+        final Iterator<Generated<T>> it = this.generated.values().iterator();
+        while (it.hasNext() && this.ticks - it.next().tick > this.expiryTicks) {
+            it.remove();
+        }
+        this.source.scheduleLookAhead(this);
+    }
+
+    /**
+     * Generates the next queued chunk, must be called while holding the lock.
+     *
+     * @return False if nothing was queued
+     */
+    private boolean generateNext() {
+        final Iterator<Long> it = this.queued.iterator();
+        if (!it.hasNext()) {
+            return false;
+        }
+        final long key = it.next();
+        it.remove();
+        final int chunkX = (int) key;
+        final int chunkZ = (int) (key >>> 32);
+        if (this.source.isSaved(chunkX, chunkZ)) {
+            // Will be loaded instead
+            return true;
+        }
+        this.generated.put(key, new Generated<>(this.source.generate(chunkX, chunkZ), this.ticks));
+        return true;
+    }
+
+    /**
+     * Blocks the worker until the current tick is over. Called by the main
+     * thread at the start of every tick.
+     */
+    public static void onTickStart() {
+        lock.lock();
+        try {
+            serverIdle = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lets every pipeline queue chunks it expects to be needed soon and
+     * allows the worker to generate them until the next tick starts. Called
+     * by the main thread at the end of every tick.
+     */
+    public static void onTickEnd() {
+        lock.lock();
+        try {
+            for (ChunkGenerationPipeline<?> pipeline : pipelines) {
+                pipeline.scheduleLookAhead();
+            }
+            serverIdle = true;
+            serverIdleCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the worker from generating until the next tick ends.
+     */
+    public static void onServerStopping() {
+        onTickStart();
+    }
+
+    private static void runWorker() {
+        while (true) {
+            lock.lock();
+            try {
+                while (!serverIdle || !generateNextChunk()) {
+                    serverIdleCondition.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                // The main thread generates the chunk again if it is needed,
+                // which reports the error properly
+                SpongeImpl.getLogger().error("Failed to generate chunk terrain ahead of time", t);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static boolean generateNextChunk() {
+        for (ChunkGenerationPipeline<?> pipeline : pipelines) {
+            if (pipeline.generateNext()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long toKey(int chunkX, int chunkZ) {
+        return chunkX & 0xFFFFFFFFL | (chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    private static final class Generated<T> {
+
+        final T terrain;
+        final long tick;
+
+        Generated(T terrain, long tick) {
+            this.terrain = terrain;
+            this.tick = tick;
+        }
+
+    }
+
+    /**
+     * Provides the generation stage of the chunks of a pipeline.
+     *
+     * @param <T> The type of the generated terrain
+     */
+    public interface Source<T> {
+
+        /**
+         * Generates the terrain of the given chunk. Must only depend on the
+         * chunk position and the generator settings.
+         *
+         * @param chunkX The chunk x position
+         * @param chunkZ The chunk z position
+         * @return The generated terrain
+         */
+        T generate(int chunkX, int chunkZ);
+
+        /**
+         * Gets whether the given chunk still has to be generated, checked on
+         * the queueing thread before the chunk is queued. This must not touch
+         * the disk.
+         *
+         * @param chunkX The chunk x position
+         * @param chunkZ The chunk z position
+         * @return True if the chunk isn't loaded
+         */
+        boolean needsGeneration(int chunkX, int chunkZ);
+
+        /**
+         * Gets whether the given chunk was already saved, checked on the
+         * worker right before the chunk is generated. Saved chunks are
+         * dropped from the queue.
+         *
+         * @param chunkX The chunk x position
+         * @param chunkZ The chunk z position
+         * @return True if the chunk is saved
+         */
+        boolean isSaved(int chunkX, int chunkZ);
+
+        /**
+         * Queues the chunks that are expected to be needed soon. Called by the
+         * main thread at the end of every tick.
+         *
+         * @param pipeline The pipeline to queue chunks to
+         */
+        void scheduleLookAhead(ChunkGenerationPipeline<T> pipeline);
+
+    }
+
+}
@@ -34,11 +34,15 @@
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EnumCreatureType;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.IProgressUpdate;
+import net.minecraft.util.MathHelper;
 import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.BiomeGenBase.SpawnListEntry;
 import net.minecraft.world.chunk.Chunk;
@@ -64,21 +68,27 @@
 import org.spongepowered.api.world.gen.Populator;
 import org.spongepowered.api.world.gen.WorldGenerator;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig;
 import org.spongepowered.common.interfaces.world.biome.IBiomeGenBase;
 import org.spongepowered.common.interfaces.world.gen.IChunkProviderGenerate;
 import org.spongepowered.common.interfaces.world.gen.IFlaggedPopulator;
+import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ChunkPrimerBuffer;
 import org.spongepowered.common.world.gen.populators.SnowPopulator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 /**
  * Similar class to {@link ChunkProviderGenerate}, but instead gets its blocks
  * from a custom chunk generator.
@@ -86,6 +96,7 @@
 public class SpongeChunkProvider implements WorldGenerator, IChunkProvider {
 
     private static final Vector2i CHUNK_AREA = new Vector2i(16, 16);
+    private static final long LOOK_AHEAD_EXPIRY_TICKS = 600;
 
     protected BiomeGenerator biomeGenerator;
     protected GenerationPopulator baseGenerator;
@@ -93,32 +104,35 @@ public class SpongeChunkProvider implements WorldGenerator, IChunkProvider {
     protected List<Populator> pop;
     protected Map<BiomeType, BiomeGenerationSettings> biomeSettings;
     protected final World world;
-    private final ByteArrayMutableBiomeBuffer cachedBiomes;
+    private final ThreadLocal<GenerationContext> generationContext = ThreadLocal.withInitial(GenerationContext::new);
+    @Nullable private final ChunkGenerationPipeline<GeneratedTerrain> pipeline;
 
     protected Random rand;
     private NoiseGeneratorPerlin noise4;
-    private double[] stoneNoise;
 
     public SpongeChunkProvider(World world, GenerationPopulator base, BiomeGenerator biomegen) {
         this.world = checkNotNull(world, "world");
         this.baseGenerator = checkNotNull(base, "baseGenerator");
         this.biomeGenerator = checkNotNull(biomegen, "biomeGenerator");
 
-        // Make initially empty biome cache
-        this.cachedBiomes = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
-        this.cachedBiomes.detach();
-
         this.genpop = Lists.newArrayList();
         this.pop = Lists.newArrayList();
         this.biomeSettings = Maps.newHashMap();
         this.rand = new Random(world.getSeed());
         this.noise4 = new NoiseGeneratorPerlin(this.rand, 4);
-        this.stoneNoise = new double[256];
 
         this.world.provider.worldChunkMgr = CustomWorldChunkManager.of(this.biomeGenerator);
         if (this.baseGenerator instanceof IChunkProviderGenerate) {
             ((IChunkProviderGenerate) this.baseGenerator).setBiomeGenerator(this.biomeGenerator);
         }
+
+        final SpongeConfig.OptimizationCategory optimizations = SpongeImpl.getGlobalConfig().getConfig().getOptimizations();
+        if (world instanceof WorldServer && optimizations.useAsyncChunkGeneration()) {
+            this.pipeline = new ChunkGenerationPipeline<>(new LookAheadSource(optimizations.getAsyncChunkGenerationLookAhead()),
+                    optimizations.getAsyncChunkGenerationQueueSize(), LOOK_AHEAD_EXPIRY_TICKS);
+        } else {
+            this.pipeline = null;
+        }
     }
 
     @Override
@@ -132,6 +146,7 @@ public void setBaseGenerationPopulator(GenerationPopulator baseGenerationPopulat
         if (this.baseGenerator instanceof IChunkProviderGenerate) {
             ((IChunkProviderGenerate) this.baseGenerator).setBiomeGenerator(this.biomeGenerator);
         }
+        discardGeneratedTerrain();
     }
 
     @Override
@@ -141,6 +156,7 @@ public List<GenerationPopulator> getGenerationPopulators() {
 
     public void setGenerationPopulators(List<GenerationPopulator> generationPopulators) {
         this.genpop = Lists.newArrayList(generationPopulators);
+        discardGeneratedTerrain();
     }
 
     @Override
@@ -158,6 +174,7 @@ public Map<BiomeType, BiomeGenerationSettings> getBiomeOverrides() {
 
     public void setBiomeOverrides(Map<BiomeType, BiomeGenerationSettings> biomeOverrides) {
         this.biomeSettings = Maps.newHashMap(biomeOverrides);
+        discardGeneratedTerrain();
     }
 
     @Override
@@ -172,6 +189,7 @@ public void setBiomeGenerator(BiomeGenerator biomeGenerator) {
         if (this.baseGenerator instanceof IChunkProviderGenerate) {
             ((IChunkProviderGenerate) this.baseGenerator).setBiomeGenerator(biomeGenerator);
         }
+        discardGeneratedTerrain();
     }
 
     @Override
@@ -194,17 +212,66 @@ public List<Populator> getPopulators(Class<? extends Populator> type) {
 
     @Override
     public Chunk provideChunk(int chunkX, int chunkZ) {
-        this.rand.setSeed((long) chunkX * 341873128712L + (long) chunkZ * 132897987541L);
-        this.cachedBiomes.reuse(new Vector2i(chunkX * 16, chunkZ * 16));
-        this.biomeGenerator.generateBiomes(this.cachedBiomes);
+        GeneratedTerrain terrain = this.pipeline == null ? null : this.pipeline.take(chunkX, chunkZ);
+        if (terrain == null) {
+            terrain = generateTerrain(chunkX, chunkZ);
+        }
+
+        // Assemble chunk
+        Chunk chunk = new Chunk(this.world, terrain.primer, chunkX, chunkZ);
+        byte[] biomeArray = chunk.getBiomeArray();
+        System.arraycopy(terrain.biomes, 0, biomeArray, 0, biomeArray.length);
+        chunk.generateSkylightMap();
+        return chunk;
+    }
+
+    /**
+     * Queues the terrain of the given chunk to be generated ahead of time, if
+     * asynchronous chunk generation is enabled.
+     *
+     * @param chunkX The chunk x position
+     * @param chunkZ The chunk z position
+     * @return False if asynchronous chunk generation is disabled or its
+     *     queue is full
+     */
+    public boolean queueGeneration(int chunkX, int chunkZ) {
+        return this.pipeline != null && this.pipeline.queue(chunkX, chunkZ);
+    }
+
+    private void discardGeneratedTerrain() {
+        if (this.pipeline != null) {
+            this.pipeline.clear();
+        }
+    }
+
+    /**
+     * Runs the base generator, the biome block replacement and all
+     * generation populators for the given chunk. This only writes to the
+     * buffers of the calling thread, which allows it to run on the
+     * generation worker.
+     *
+     * @param chunkX The chunk x position
+     * @param chunkZ The chunk z position
+     * @return The generated blocks and biomes
+     */
+    GeneratedTerrain generateTerrain(int chunkX, int chunkZ) {
+        final GenerationContext context = this.generationContext.get();
+        final ByteArrayMutableBiomeBuffer cachedBiomes = context.biomes;
+        if (!cachedBiomes.isDetached()) {
+            // A previous generation failed half way through
+            cachedBiomes.detach();
+        }
+        context.rand.setSeed((long) chunkX * 341873128712L + (long) chunkZ * 132897987541L);
+        cachedBiomes.reuse(new Vector2i(chunkX * 16, chunkZ * 16));
+        this.biomeGenerator.generateBiomes(cachedBiomes);
 
         // Generate base terrain
         ChunkPrimer chunkprimer = new ChunkPrimer();
         MutableBlockVolume blockBuffer = new ChunkPrimerBuffer(chunkprimer, chunkX, chunkZ);
-        ImmutableBiomeArea biomeBuffer = this.cachedBiomes.getImmutableBiomeCopy();
+        ImmutableBiomeArea biomeBuffer = cachedBiomes.getImmutableBiomeCopy();
         this.baseGenerator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
 
-        replaceBiomeBlocks(this.world, this.rand, chunkX, chunkZ, chunkprimer, biomeBuffer);
+        replaceBiomeBlocks(this.world, context.rand, chunkX, chunkZ, chunkprimer, biomeBuffer);
 
         // Apply the generator populators to complete the blockBuffer
         for (GenerationPopulator populator : this.genpop) {
@@ -216,7 +283,7 @@ public Chunk provideChunk(int chunkX, int chunkZ) {
         BiomeType biome;
         for (int x = 0; x < 16; x++) {
             for (int z = 0; z < 16; z++) {
-                biome = this.cachedBiomes.getBiome(chunkX * 16 + x, chunkZ * 16 + z);
+                biome = cachedBiomes.getBiome(chunkX * 16 + x, chunkZ * 16 + z);
                 if (!uniqueBiomes.contains(biome)) {
                     uniqueBiomes.add(biome);
                 }
@@ -233,12 +300,8 @@ public Chunk provideChunk(int chunkX, int chunkZ) {
             }
         }
 
-        // Assemble chunk
-        Chunk chunk = new Chunk(this.world, chunkprimer, chunkX, chunkZ);
-        byte[] biomeArray = chunk.getBiomeArray();
-        System.arraycopy(this.cachedBiomes.detach(), 0, biomeArray, 0, biomeArray.length);
-        chunk.generateSkylightMap();
-        return chunk;
+        // The biome buffer is reused by the next chunk of this thread
+        return new GeneratedTerrain(chunkprimer, cachedBiomes.detach().clone());
     }
 
     @Override
@@ -399,12 +462,13 @@ public boolean chunkExists(int x, int z) {
 
     public void replaceBiomeBlocks(World world, Random rand, int x, int z, ChunkPrimer chunk, ImmutableBiomeArea biomes) {
         double d0 = 0.03125D;
-        this.stoneNoise = this.noise4.func_151599_a(this.stoneNoise, (double) (x * 16), (double) (z * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
+        final GenerationContext context = this.generationContext.get();
+        context.stoneNoise = this.noise4.func_151599_a(context.stoneNoise, (double) (x * 16), (double) (z * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
         Vector2i min = biomes.getBiomeMin();
         for (int k = 0; k < 16; ++k) {
             for (int l = 0; l < 16; ++l) {
                 BiomeType biomegenbase = biomes.getBiome(min.getX() + l, min.getY() + k);
-                generateBiomeTerrain(world, rand, chunk, x * 16 + k, z * 16 + l, this.stoneNoise[l + k * 16],
+                generateBiomeTerrain(world, rand, chunk, x * 16 + k, z * 16 + l, context.stoneNoise[l + k * 16],
                         getBiomeSettings(biomegenbase).getGroundCoverLayers());
             }
         }
@@ -476,4 +540,112 @@ public void generateBiomeTerrain(World worldIn, Random rand, ChunkPrimer chunk,
         }
     }
 
+    /**
+     * The buffers used to generate terrain, one instance per thread.
+     */
+    private static final class GenerationContext {
+
+        final Random rand = new Random();
+        final ByteArrayMutableBiomeBuffer biomes = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
+        double[] stoneNoise = new double[256];
+
+        GenerationContext() {
+            // Make initially empty biome cache
+            this.biomes.detach();
+        }
+
+    }
+
+    /**
+     * The blocks and biomes of a chunk that still has to be assembled.
+     */
+    static final class GeneratedTerrain {
+
+        final ChunkPrimer primer;
+        final byte[] biomes;
+
+        GeneratedTerrain(ChunkPrimer primer, byte[] biomes) {
+            this.primer = primer;
+            this.biomes = biomes;
+        }
+
+    }
+
+    /**
+     * Feeds the generation pipeline with the chunks players are moving
+     * towards, just outside of their view distance.
+     */
+    private final class LookAheadSource implements ChunkGenerationPipeline.Source<GeneratedTerrain> {
+
+        private final int lookAhead;
+        private Map<UUID, ChunkCoordIntPair> playerChunks = new HashMap<>();
+
+        LookAheadSource(int lookAhead) {
+            this.lookAhead = lookAhead;
+        }
+
+        @Override
+        public GeneratedTerrain generate(int chunkX, int chunkZ) {
+            return generateTerrain(chunkX, chunkZ);
+        }
+
+        @Override
+        public boolean needsGeneration(int chunkX, int chunkZ) {
+            return getChunkProvider().getChunkIfLoaded(chunkX, chunkZ) == null;
+        }
+
+        @Override
+        public boolean isSaved(int chunkX, int chunkZ) {
+            // Opens the region file, so this is only checked on the worker
+            return getChunkProvider().isChunkSaved(chunkX, chunkZ);
+        }
+
+        @Override
+        public void scheduleLookAhead(ChunkGenerationPipeline<GeneratedTerrain> pipeline) {
+            if (this.lookAhead <= 0) {
+                return;
+            }
+            final int viewDistance = MinecraftServer.getServer().getConfigurationManager().getViewDistance();
+            final Map<UUID, ChunkCoordIntPair> playerChunks = new HashMap<>();
+            for (EntityPlayer player : SpongeChunkProvider.this.world.playerEntities) {
+                final ChunkCoordIntPair current = new ChunkCoordIntPair(MathHelper.floor_double(player.posX) >> 4,
+                        MathHelper.floor_double(player.posZ) >> 4);
+                playerChunks.put(player.getUniqueID(), current);
+                final ChunkCoordIntPair previous = this.playerChunks.get(player.getUniqueID());
+                if (previous != null && !previous.equals(current)) {
+                    queueLeadingEdge(pipeline, current, Integer.signum(current.chunkXPos - previous.chunkXPos),
+                            Integer.signum(current.chunkZPos - previous.chunkZPos), viewDistance);
+                }
+            }
+            this.playerChunks = playerChunks;
+        }
+
+        private void queueLeadingEdge(ChunkGenerationPipeline<GeneratedTerrain> pipeline, ChunkCoordIntPair center, int directionX,
+                int directionZ, int viewDistance) {
+            final IMixinChunkProviderServer chunkProvider = getChunkProvider();
+            for (int distance = viewDistance + 1; distance <= viewDistance + this.lookAhead; distance++) {
+                for (int offset = -distance; offset <= distance; offset++) {
+                    if (directionX != 0 && !queueIfUnloaded(pipeline, chunkProvider, center.chunkXPos + directionX * distance,
+                            center.chunkZPos + offset)) {
+                        return;
+                    }
+                    if (directionZ != 0 && !queueIfUnloaded(pipeline, chunkProvider, center.chunkXPos + offset,
+                            center.chunkZPos + directionZ * distance)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private boolean queueIfUnloaded(ChunkGenerationPipeline<GeneratedTerrain> pipeline, IMixinChunkProviderServer chunkProvider,
+                int chunkX, int chunkZ) {
+            return chunkProvider.getChunkIfLoaded(chunkX, chunkZ) != null || pipeline.queue(chunkX, chunkZ);
+        }
+
+        private IMixinChunkProviderServer getChunkProvider() {
+            return (IMixinChunkProviderServer) ((WorldServer) SpongeChunkProvider.this.world).theChunkProviderServer;
+        }
+
+    }
+
 }
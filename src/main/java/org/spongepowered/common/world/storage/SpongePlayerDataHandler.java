@@ -27,6 +27,7 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import org.apache.logging.log4j.Level;
@@ -37,74 +38,64 @@
 import org.spongepowered.common.world.DimensionManager;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.nio.file.DirectoryIteratorException;
-import java.nio.file.DirectoryStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
+/**
+ * Stores the join dates of players in {@code data/sponge}.
+ *
+ * <p>Player files are loaded the first time they are accessed and only
+ * written when they changed. Files are sharded into sub directories named
+ * after the first two characters of the unique id, files in the flat layout
+ * of older versions are still read and moved when they are saved next.</p>
+ */
 public final class SpongePlayerDataHandler {
 
     private static final String SPONGE_DATA = "sponge";
     private boolean hasInitialized = false;
-    private Path playerDir;
+    @Nullable private Path playerDir;
 
-    private Map<UUID, SpongePlayerData> playerDataMap;
+    private final Map<UUID, Optional<SpongePlayerData>> playerDataMap = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    // A single writer keeps the writes of a player in order
+    private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("Sponge Player Data Writer").setDaemon(true).build());
 
     public static void init() {
         SpongePlayerDataHandler handlerInstance = Holder.INSTANCE;
-        handlerInstance.playerDataMap = new ConcurrentHashMap<>();
+        flush();
+        handlerInstance.playerDataMap.clear();
+        handlerInstance.dirtyPlayers.clear();
+        handlerInstance.playerDir = null;
 
         @Nullable File root = DimensionManager.getCurrentSaveRootDirectory();
-        if (root == null) {
-            return;
-        }
-        final Path directoryRoot = root.toPath();
         if (root != null) { // ok, we're on the server, guaranteed.
-            final String filePath = directoryRoot.toString() + File.separator + "data" + File.separator + SPONGE_DATA;
+            final Path playerDir = root.toPath().resolve("data").resolve(SPONGE_DATA);
             try {
-                handlerInstance.playerDir = Paths.get(filePath);
-                Path file = Files.createDirectories(handlerInstance.playerDir);
-                List<Path> playerFiles = new ArrayList<>();
-                try (DirectoryStream<Path> stream = Files.newDirectoryStream(file, "*.{dat}")) {
-                    for (Path entry : stream) {
-                        playerFiles.add(entry);
-                    }
-                } catch (DirectoryIteratorException e) {
-                    SpongeImpl.getLogger().log(Level.ERROR, "Something happened when trying to gather all player files", e);
-                }
-                for (Path playerFile : playerFiles) {
-                    File actualFile = playerFile.toFile();
-                    if (actualFile.exists() && actualFile.isFile()) {
-                        FileInputStream stream = new FileInputStream(actualFile);
-                        NBTTagCompound compound = CompressedStreamTools.readCompressed(stream);
-                        stream.close();
-                        DataContainer container = NbtTranslator.getInstance().translateFrom(compound);
-                        SpongePlayerData data = container.getSerializable(DataQuery.of(), SpongePlayerData.class).get();
-                        handlerInstance.playerDataMap.put(data.uuid, data);
-                    }
-                }
-                playerFiles.clear();
-
+                handlerInstance.playerDir = Files.createDirectories(playerDir);
             } catch (FileAlreadyExistsException e) {
-                SpongeImpl.getLogger().printf(Level.ERROR, "Someone went and created a file for the desired path: {}", filePath);
-            } catch (Exception e) {
-                e.printStackTrace();
+                SpongeImpl.getLogger().printf(Level.ERROR, "Someone went and created a file for the desired path: %s", playerDir);
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to create the player data directory {}", playerDir, e);
             }
-
         }
         handlerInstance.hasInitialized = true;
     }
@@ -112,9 +103,9 @@ public static void init() {
     public static void savePlayer(UUID id) {
         checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
         SpongePlayerDataHandler instance = Holder.INSTANCE;
-        @Nullable SpongePlayerData data = instance.playerDataMap.get(checkNotNull(id, "Player id cannot be null!"));
+        @Nullable SpongePlayerData data = instance.getData(checkNotNull(id, "Player id cannot be null!"));
         if (data != null) {
-            saveFile(id.toString(), createCompoundFor(data));
+            instance.saveIfDirty(data);
         } else {
             SpongeImpl.getLogger().error("Couldn't find a player data for the uuid: " + id.toString());
         }
@@ -123,47 +114,102 @@ public static void savePlayer(UUID id) {
     public static void saveFiles() {
         checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
         SpongePlayerDataHandler instance = Holder.INSTANCE;
-        Map<String, NBTTagCompound> compoundMap = new HashMap<>();
-        for (Map.Entry<UUID, SpongePlayerData> entry : instance.playerDataMap.entrySet()) {
-            SpongePlayerData data = entry.getValue();
-            compoundMap.put(entry.getKey().toString(), createCompoundFor(data));
+        for (UUID id : instance.dirtyPlayers) {
+            @Nullable SpongePlayerData data = instance.getData(id);
+            if (data != null) {
+                instance.saveIfDirty(data);
+            }
         }
-        for (Map.Entry<String, NBTTagCompound> entry : compoundMap.entrySet()) {
-            saveFile(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Saves all changed player data and waits until it is written.
+     */
+    public static void flush() {
+        SpongePlayerDataHandler instance = Holder.INSTANCE;
+        if (instance.hasInitialized) {
+            saveFiles();
+        }
+        try {
+            instance.writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            SpongeImpl.getLogger().error("Failed to wait for the player data to be written", e);
         }
-        compoundMap.clear();
+    }
+
+    @Nullable
+    private SpongePlayerData getData(UUID id) {
+        return this.playerDataMap.computeIfAbsent(id, this::load).orElse(null);
+    }
+
+    private Optional<SpongePlayerData> load(UUID id) {
+        if (this.playerDir == null) {
+            return Optional.empty();
+        }
+        Path file = getFile(id);
+        if (!Files.isRegularFile(file)) {
+            file = getLegacyFile(id);
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+        }
+        try (InputStream stream = Files.newInputStream(file)) {
+            NBTTagCompound compound = CompressedStreamTools.readCompressed(stream);
+            DataContainer container = NbtTranslator.getInstance().translateFrom(compound);
+            return container.getSerializable(DataQuery.of(), SpongePlayerData.class);
+        } catch (Exception e) {
+            SpongeImpl.getLogger().error("Failed to load the player data {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private Path getFile(UUID id) {
+        final String name = id.toString();
+        return this.playerDir.resolve(name.substring(0, 2)).resolve(name + ".dat");
+    }
+
+    private Path getLegacyFile(UUID id) {
+        return this.playerDir.resolve(id.toString() + ".dat");
+    }
+
+    private void saveIfDirty(SpongePlayerData data) {
+        if (this.playerDir == null || !this.dirtyPlayers.remove(data.uuid)) {
+            return;
+        }
+        // The compound is a snapshot, the data may change again while it is written
+        final NBTTagCompound compound = createCompoundFor(data);
+        final UUID id = data.uuid;
+        this.writer.execute(() -> {
+            if (!saveFile(id, compound)) {
+                this.dirtyPlayers.add(id);
+            }
+        });
     }
 
     private static NBTTagCompound createCompoundFor(SpongePlayerData data) {
         return NbtTranslator.getInstance().translateData(data.toContainer());
     }
 
-    private static void saveFile(String id, NBTTagCompound compound) {
-        checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
-        SpongePlayerDataHandler instance = Holder.INSTANCE;
+    private boolean saveFile(UUID id, NBTTagCompound compound) {
+        final Path file = getFile(id);
+        final Path tempFile = file.resolveSibling(id.toString() + "_new.dat");
         try {
-            final String pathString = instance.playerDir.toString() + File.separator + id;
-            File newFile = new File(pathString + "_new.dat");
-            File finalFile = new File(pathString + ".dat");
-            try (FileOutputStream stream = new FileOutputStream(newFile)) {
+            Files.createDirectories(file.getParent());
+            try (OutputStream stream = Files.newOutputStream(tempFile)) {
                 CompressedStreamTools.writeCompressed(compound, stream);
-                if (finalFile.exists()) {
-                    if (!finalFile.delete()) {
-                        SpongeImpl.getLogger().log(Level.WARN, "There was an issue deleting the previous file: " + finalFile.getAbsolutePath());
-                    }
-                }
-                if (!newFile.renameTo(finalFile)) {
-                    SpongeImpl.getLogger().error("Could not rename file: {} to {} !", newFile.getAbsolutePath(), finalFile.getAbsolutePath());
-                }
-                if (newFile.exists()) {
-                    if (!newFile.delete()) {
-                        SpongeImpl.getLogger().error("Could not delete file: {}", newFile.getAbsolutePath());
-                    }
-                }
             }
-        } catch (Exception e) {
-            SpongeImpl.getLogger().error("Failed to save player data: " + id);
-            e.printStackTrace();
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(getLegacyFile(id));
+            return true;
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to save player data: " + id, e);
+            return false;
         }
     }
 
@@ -173,29 +219,34 @@ public static void setPlayerInfo(UUID playerId, Instant join, Instant last) {
         checkNotNull(last, "Last joined date cannot be null!");
         SpongePlayerDataHandler instance = Holder.INSTANCE;
 
-        SpongePlayerData data = instance.playerDataMap.get(checkNotNull(playerId, "Player UUID cannot be null!"));
+        SpongePlayerData data = instance.getData(checkNotNull(playerId, "Player UUID cannot be null!"));
         if (data == null) {
             data = new SpongePlayerData();
             data.uuid = playerId;
+            instance.playerDataMap.put(playerId, Optional.of(data));
+        } else if (data.firstJoined == join.toEpochMilli() && data.lastJoined == last.toEpochMilli()) {
+            return;
         }
         data.firstJoined = join.toEpochMilli();
         data.lastJoined = last.toEpochMilli();
-        instance.playerDataMap.put(playerId, data);
+        instance.dirtyPlayers.add(playerId);
     }
 
     public static Optional<Instant> getFirstJoined(UUID player) {
         checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
-        final SpongePlayerData data = Holder.INSTANCE.playerDataMap.get(player);
+        final SpongePlayerData data = Holder.INSTANCE.getData(player);
         return Optional.ofNullable(data == null ? null : Instant.ofEpochMilli(data.firstJoined));
     }
 
     public static Optional<Instant> getLastPlayed(UUID player) {
         checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
-        final SpongePlayerData data = Holder.INSTANCE.playerDataMap.get(player);
+        final SpongePlayerData data = Holder.INSTANCE.getData(player);
         return Optional.ofNullable(data == null ? null : Instant.ofEpochMilli(data.lastJoined));
     }
 
-    SpongePlayerDataHandler() { }
+    SpongePlayerDataHandler() {
+        this.writer.allowCoreThreadTimeOut(true);
+    }
 
     private static final class Holder {
         static final SpongePlayerDataHandler INSTANCE = new SpongePlayerDataHandler();
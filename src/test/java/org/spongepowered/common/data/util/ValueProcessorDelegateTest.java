@@ -0,0 +1,88 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.ValueContainer;
+import org.spongepowered.api.data.value.mutable.Value;
+import org.spongepowered.common.data.ValueProcessor;
+
+import java.util.Optional;
+
+public class ValueProcessorDelegateTest {
+
+    @SuppressWarnings("unchecked")
+    private static ValueProcessor<String, Value<String>> mockProcessor(boolean applicable, Optional<String> value) {
+        ValueProcessor<String, Value<String>> processor = mock(ValueProcessor.class);
+        when(processor.isApplicableTo(any(Class.class))).thenReturn(applicable);
+        when(processor.supports(any(ValueContainer.class))).thenReturn(true);
+        when(processor.getValueFromContainer(any(ValueContainer.class))).thenReturn(value);
+        return processor;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSkipsInapplicableProcessors() {
+        ValueProcessor<String, Value<String>> skipped = mockProcessor(false, Optional.of("skipped"));
+        ValueProcessor<String, Value<String>> used = mockProcessor(true, Optional.of("used"));
+        ValueProcessorDelegate<String, Value<String>> delegate = new ValueProcessorDelegate<>(mock(Key.class), ImmutableList.of(skipped, used));
+
+        ValueContainer<?> container = mock(ValueContainer.class);
+        assertEquals(Optional.of("used"), delegate.getValueFromContainer(container));
+        assertEquals(Optional.of("used"), delegate.getValueFromContainer(container));
+        assertTrue(delegate.supports(container));
+
+        // The applicable processors are resolved once per container class
+        verify(skipped, times(1)).isApplicableTo(container.getClass());
+        verify(skipped, never()).supports(any(ValueContainer.class));
+        verify(skipped, never()).getValueFromContainer(any(ValueContainer.class));
+        verify(used, times(2)).getValueFromContainer(container);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testNoApplicableProcessors() {
+        ValueProcessor<String, Value<String>> skipped = mockProcessor(false, Optional.of("skipped"));
+        ValueProcessorDelegate<String, Value<String>> delegate = new ValueProcessorDelegate<>(mock(Key.class), ImmutableList.of(skipped));
+
+        ValueContainer<?> container = mock(ValueContainer.class);
+        assertFalse(delegate.isApplicableTo(container.getClass()));
+        assertFalse(delegate.supports(container));
+        assertEquals(Optional.empty(), delegate.getValueFromContainer(container));
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.collect.Maps;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.Random;
+
+public class PlayerTrackerMapTest {
+
+    // A chunk of a build server with many tracked blocks
+    private static final int TRACKED_BLOCKS = 20000;
+
+    @Test
+    public void testSetAndGet() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        assertEquals(-1, map.getOwner(0, 0, 0));
+        assertFalse(map.contains(0, 0, 0));
+
+        map.setOwner(0, 0, 0, 5);
+        map.setNotifier(15, 255, 15, 7);
+        map.set(-1, 300, -16, 1, 2);
+
+        assertEquals(5, map.getOwner(0, 0, 0));
+        assertEquals(-1, map.getNotifier(0, 0, 0));
+        assertEquals(-1, map.getOwner(15, 255, 15));
+        assertEquals(7, map.getNotifier(15, 255, 15));
+        // Positions are relative to the chunk
+        assertEquals(1, map.getOwner(15, 300, 0));
+        assertEquals(2, map.getNotifier(31, 300, 16));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void testAllPositions() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        for (int y = 0; y < 256; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    map.set(x, y, z, y, x + z);
+                }
+            }
+        }
+        assertEquals(256 * 16 * 16, map.size());
+        for (int y = 0; y < 256; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    assertEquals(y, map.getOwner(x, y, z));
+                    assertEquals(x + z, map.getNotifier(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testArrayRoundTrip() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        Random random = new Random(0);
+        for (int i = 0; i < TRACKED_BLOCKS; i++) {
+            map.set(random.nextInt(16), random.nextInt(256), random.nextInt(16), random.nextInt(100), random.nextInt(100) - 1);
+        }
+        PlayerTrackerMap copy = new PlayerTrackerMap();
+        copy.addAll(map.toArray());
+        assertEquals(map.size(), copy.size());
+        map.forEach((x, y, z, owner, notifier) -> {
+            assertTrue(copy.contains(x, y, z));
+            assertEquals(owner, copy.getOwner(x, y, z));
+            assertEquals(notifier, copy.getNotifier(x, y, z));
+        });
+    }
+
+    /**
+     * Compares the memory allocated to track the blocks of a chunk with the
+     * boxed maps that were used before.
+     */
+    @Test
+    public void testMemoryUsage() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+
+        Random random = new Random(0);
+        short[] positions = new short[TRACKED_BLOCKS];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (short) random.nextInt(1 << 16);
+        }
+
+        long start = allocationBean.getThreadAllocatedBytes(threadId);
+        Map<Short, PlayerTracker> boxed = Maps.newHashMap();
+        for (short pos : positions) {
+            boxed.put(pos, new PlayerTracker(1, PlayerTracker.Type.OWNER));
+        }
+        long boxedBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        start = allocationBean.getThreadAllocatedBytes(threadId);
+        PlayerTrackerMap primitive = new PlayerTrackerMap();
+        for (short pos : positions) {
+            primitive.set(pos & 0xF, (pos >> 4) & 0xFF, (pos >> 12) & 0xF, 1, -1);
+        }
+        long primitiveBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        assertEquals(boxed.size(), primitive.size());
+        // Allocations include the tables discarded while growing, which is
+        // about half of what the primitive map allocates in total
+        assertTrue("Primitive map allocated " + primitiveBytes + " bytes, boxed map " + boxedBytes + " bytes",
+                primitiveBytes * 4 < boxedBytes * 3);
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class SpongeEventManagerTest {
+
+    private final Object plugin = new Object();
+    private SpongeEventManager eventManager;
+
+    @Before
+    public void init() {
+        PluginManager pluginManager = mock(PluginManager.class);
+        when(pluginManager.fromInstance(this.plugin)).thenReturn(Optional.of(mock(PluginContainer.class)));
+        this.eventManager = new SpongeEventManager(pluginManager);
+    }
+
+    @Test
+    public void testRegisterUpdatesExistingDispatch() {
+        List<Order> called = new ArrayList<>();
+
+        // Bake the event type before anything is registered for it
+        Assert.assertFalse(this.eventManager.hasListener(EventFilterTest.SubEvent.class));
+        this.eventManager.post(new EventFilterTest.SubEvent(Cause.source(this).build()));
+
+        this.eventManager.registerListener(this.plugin, EventFilterTest.TestEvent.class, Order.LAST, event -> called.add(Order.LAST));
+        this.eventManager.registerListener(this.plugin, EventFilterTest.SubEvent.class, Order.FIRST, event -> called.add(Order.FIRST));
+        Assert.assertTrue(this.eventManager.hasListener(EventFilterTest.SubEvent.class));
+
+        this.eventManager.post(new EventFilterTest.SubEvent(Cause.source(this).build()));
+        Assert.assertEquals("Listeners were not called in order!", 2, called.size());
+        Assert.assertEquals(Order.FIRST, called.get(0));
+        Assert.assertEquals(Order.LAST, called.get(1));
+    }
+
+    @Test
+    public void testUnregisterUpdatesExistingDispatch() {
+        List<Order> called = new ArrayList<>();
+
+        this.eventManager.registerListener(this.plugin, EventFilterTest.TestEvent.class, event -> called.add(Order.DEFAULT));
+        this.eventManager.post(new EventFilterTest.SubEvent(Cause.source(this).build()));
+        Assert.assertEquals(1, called.size());
+
+        this.eventManager.unregisterPluginListeners(this.plugin);
+        Assert.assertFalse(this.eventManager.hasListener(EventFilterTest.SubEvent.class));
+        this.eventManager.post(new EventFilterTest.SubEvent(Cause.source(this).build()));
+        Assert.assertEquals("Unregistered listener was called!", 1, called.size());
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+public class PacketBatcherTest {
+
+    @Test
+    public void testPacketsAreFlushedOncePerTick() {
+        final EmbeddedChannel first = new EmbeddedChannel();
+        final EmbeddedChannel second = new EmbeddedChannel();
+
+        first.write("a");
+        PacketBatcher.onPacketQueued(first);
+        first.write("b");
+        PacketBatcher.onPacketQueued(first);
+        second.write("c");
+        PacketBatcher.onPacketQueued(second);
+
+        // Nothing reaches the wire before the end of the tick
+        assertNull(first.readOutbound());
+        assertNull(second.readOutbound());
+
+        PacketBatcher.flushPendingChannels();
+
+        assertEquals("a", first.readOutbound());
+        assertEquals("b", first.readOutbound());
+        assertEquals("c", second.readOutbound());
+        assertEquals(3, PacketBatcher.getLastTickPackets());
+        assertEquals(2, PacketBatcher.getLastTickFlushes());
+
+        // Channels are only flushed again once something new is written
+        PacketBatcher.flushPendingChannels();
+        assertEquals(0, PacketBatcher.getLastTickPackets());
+        assertEquals(0, PacketBatcher.getLastTickFlushes());
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.profile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.profile.GameProfile;
+import org.spongepowered.api.profile.GameProfileCache;
+import org.spongepowered.api.profile.ProfileNotFoundException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+public class ProfileLookupCoalescerTest {
+
+    private final Map<UUID, GameProfile> profiles = new HashMap<>();
+    private final List<Collection<UUID>> lookups = new ArrayList<>();
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private GameProfileCache cache;
+    private ProfileLookupCoalescer<UUID> coalescer;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // A local cache that records every batch it is asked for
+        this.cache = mock(GameProfileCache.class);
+        when(this.cache.getOrLookupByIds(any(Iterable.class))).thenAnswer(invocation -> {
+            Collection<UUID> uniqueIds = new ArrayList<>((Collection<UUID>) invocation.getArguments()[0]);
+            this.lookups.add(uniqueIds);
+            Map<UUID, Optional<GameProfile>> result = new HashMap<>();
+            for (UUID uniqueId : uniqueIds) {
+                result.put(uniqueId, Optional.ofNullable(this.profiles.get(uniqueId)));
+            }
+            return result;
+        });
+        this.coalescer = new ProfileLookupCoalescer<>(ProfileLookupCoalescer.BY_UNIQUE_ID,
+                (task, onRejected) -> this.tasks.add(task));
+    }
+
+    private GameProfile addProfile() {
+        UUID uniqueId = UUID.randomUUID();
+        GameProfile profile = mock(GameProfile.class);
+        when(profile.getUniqueId()).thenReturn(uniqueId);
+        this.profiles.put(uniqueId, profile);
+        return profile;
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsShareFuture() throws Exception {
+        GameProfile profile = addProfile();
+        CompletableFuture<GameProfile> first = this.coalescer.get(this.cache, profile.getUniqueId(), true);
+        CompletableFuture<GameProfile> second = this.coalescer.get(this.cache, profile.getUniqueId(), true);
+        assertSame(first, second);
+
+        runTasks();
+        assertSame(profile, first.get());
+        assertEquals(1, this.lookups.size());
+    }
+
+    @Test
+    public void testRequestsAreBatched() throws Exception {
+        List<GameProfile> requested = new ArrayList<>();
+        List<CompletableFuture<GameProfile>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            GameProfile profile = addProfile();
+            requested.add(profile);
+            futures.add(this.coalescer.get(this.cache, profile.getUniqueId(), true));
+        }
+        assertEquals(1, this.tasks.size());
+
+        runTasks();
+        assertEquals(1, this.lookups.size());
+        assertEquals(10, this.lookups.get(0).size());
+        for (int i = 0; i < 10; i++) {
+            assertSame(requested.get(i), futures.get(i).get());
+        }
+    }
+
+    @Test
+    public void testCompletedRequestsAreLookedUpAgain() throws Exception {
+        GameProfile profile = addProfile();
+        CompletableFuture<GameProfile> first = this.coalescer.get(this.cache, profile.getUniqueId(), true);
+        runTasks();
+        CompletableFuture<GameProfile> second = this.coalescer.get(this.cache, profile.getUniqueId(), true);
+        runTasks();
+
+        assertTrue(first != second);
+        assertSame(profile, second.get());
+        assertEquals(2, this.lookups.size());
+    }
+
+    @Test
+    public void testMissingProfile() throws Exception {
+        CompletableFuture<GameProfile> future = this.coalescer.get(this.cache, UUID.randomUUID(), true);
+        runTasks();
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ProfileNotFoundException);
+            return;
+        }
+        throw new AssertionError("The lookup of a missing profile should fail");
+    }
+
+    @Test
+    public void testRejectedLookupFailsAndRecovers() throws Exception {
+        ProfileLookupCoalescer<UUID> rejecting = new ProfileLookupCoalescer<>(ProfileLookupCoalescer.BY_UNIQUE_ID, (task, onRejected) -> {
+            throw new RejectedExecutionException();
+        });
+        CompletableFuture<GameProfile> future = rejecting.get(this.cache, UUID.randomUUID(), true);
+        assertTrue(future.isCompletedExceptionally());
+
+        // A rejection reported later must fail the request as well
+        List<Runnable> rejections = new ArrayList<>();
+        ProfileLookupCoalescer<UUID> deferred = new ProfileLookupCoalescer<>(ProfileLookupCoalescer.BY_UNIQUE_ID,
+                (task, onRejected) -> rejections.add(onRejected));
+        future = deferred.get(this.cache, UUID.randomUUID(), true);
+        rejections.get(0).run();
+        assertTrue(future.isCompletedExceptionally());
+        deferred.get(this.cache, UUID.randomUUID(), true);
+        assertEquals(2, rejections.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNamesMatchIgnoringCase() throws Exception {
+        GameProfile profile = mock(GameProfile.class);
+        Map<String, Optional<GameProfile>> result = new HashMap<>();
+        result.put("Notch", Optional.of(profile));
+        when(this.cache.lookupByNames(any(Iterable.class))).thenReturn(result);
+
+        ProfileLookupCoalescer<String> names = new ProfileLookupCoalescer<>(ProfileLookupCoalescer.BY_NAME,
+                (task, onRejected) -> this.tasks.add(task));
+        CompletableFuture<GameProfile> future = names.get(this.cache, "notch", false);
+        runTasks();
+        assertSame(profile, future.get());
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.scheduler;
+
+import static org.mockito.Mockito.mock;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TaskWheelTest {
+
+    private final PluginContainer plugin = mock(PluginContainer.class);
+
+    private ScheduledTask createTask() {
+        return new ScheduledTask(ScheduledTask.TaskSynchronicity.SYNCHRONOUS, task -> { }, "test", 0, true, 0, true, this.plugin);
+    }
+
+    @Test
+    public void testTasksAreHandedOutWhenDue() {
+        TaskWheel wheel = new TaskWheel(0L);
+        Random random = new Random(1234L);
+        Map<ScheduledTask, Long> handedOut = new IdentityHashMap<>();
+        List<ScheduledTask> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 100000; i++) {
+            ScheduledTask task = createTask();
+            // Spread the tasks over all levels and the overflow
+            long time = random.nextInt(4) == 0 ? random.nextInt(1 << 26) : random.nextInt(5000);
+            wheel.schedule(task, time);
+            tasks.add(task);
+        }
+        Assert.assertEquals(100000, wheel.size());
+        tasks.sort(Comparator.comparingLong(task -> task.wheelTime));
+
+        int earliest = 0;
+        long previous = 0L;
+        while (wheel.size() > 0) {
+            while (handedOut.containsKey(tasks.get(earliest))) {
+                earliest++;
+            }
+            long next = wheel.nextTime();
+            Assert.assertTrue("nextTime is later than a due task", next <= Math.max(tasks.get(earliest).wheelTime, previous + 1));
+
+            long target = Math.max(previous + 1 + random.nextInt(1000), next);
+            final long from = previous;
+            wheel.advance(target, task -> {
+                Assert.assertNull("Task was handed out twice", handedOut.put(task, wheel.getCurrentTime()));
+                Assert.assertEquals("Task was not handed out when due", Math.max(task.wheelTime, from + 1), wheel.getCurrentTime());
+            });
+            previous = target;
+        }
+        Assert.assertEquals(100000, handedOut.size());
+    }
+
+    @Test
+    public void testRescheduleFromConsumer() {
+        TaskWheel wheel = new TaskWheel(0L);
+        ScheduledTask task = createTask();
+        int[] runs = new int[1];
+        wheel.schedule(task, 64);
+
+        for (long time = 1; time <= 64 * 10; time++) {
+            wheel.advance(time, due -> {
+                runs[0]++;
+                wheel.schedule(due, wheel.getCurrentTime() + 64);
+            });
+        }
+        Assert.assertEquals(10, runs[0]);
+        Assert.assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testRemovedTasksAreNotHandedOut() {
+        TaskWheel wheel = new TaskWheel(0L);
+        List<ScheduledTask> kept = new ArrayList<>();
+        List<ScheduledTask> removed = new ArrayList<>();
+
+        // One task to keep and one to remove on every level and in the overflow
+        for (long time : new long[] {10, 100, 5000, 300000, 1L << 26}) {
+            ScheduledTask keep = createTask();
+            ScheduledTask remove = createTask();
+            wheel.schedule(keep, time);
+            wheel.schedule(remove, time);
+            kept.add(keep);
+            removed.add(remove);
+        }
+        for (ScheduledTask task : removed) {
+            Assert.assertTrue(wheel.remove(task));
+            Assert.assertFalse("Task was removed twice", wheel.remove(task));
+        }
+        Assert.assertEquals(kept.size(), wheel.size());
+
+        List<ScheduledTask> handedOut = new ArrayList<>();
+        wheel.advance(1L << 27, handedOut::add);
+        Assert.assertEquals(kept, handedOut);
+        Assert.assertEquals(0, wheel.size());
+        Assert.assertFalse("Handed out task was removed", wheel.remove(kept.get(0)));
+    }
+
+}
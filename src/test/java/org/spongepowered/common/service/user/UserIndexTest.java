@@ -0,0 +1,185 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.mojang.authlib.GameProfile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+public class UserIndexTest {
+
+    @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = this.folder.newFolder("world");
+    }
+
+    @Test
+    public void testWriteThenRead() {
+        UUID player = UUID.randomUUID();
+        UUID banned = UUID.randomUUID();
+        UUID nameless = UUID.randomUUID();
+
+        UserIndex index = new UserIndex(this.directory);
+        assertFalse(index.readStored());
+        index.update(player, "Player", UserIndex.HAS_DATA, true);
+        index.update(player, "Player", UserIndex.WHITELISTED, true);
+        index.update(banned, "Banned", UserIndex.BANNED, true);
+        index.update(nameless, null, UserIndex.HAS_DATA, true);
+        index.save();
+
+        UserIndex read = new UserIndex(this.directory);
+        assertTrue(read.readStored());
+        assertEquals(3, read.size());
+        assertEquals(UserIndex.HAS_DATA | UserIndex.WHITELISTED, read.getFlags(player));
+        assertEquals(UserIndex.BANNED, read.getFlags(banned));
+        assertEquals(UserIndex.HAS_DATA, read.getFlags(nameless));
+        assertEquals(player, read.getUniqueId("player"));
+        assertEquals(banned, read.getUniqueId("Banned"));
+        // Users without a known name aren't listed
+        assertEquals(2, read.getAll().size());
+    }
+
+    @Test
+    public void testUpdatesAndRenames() {
+        UUID uniqueId = UUID.randomUUID();
+        UserIndex index = new UserIndex(this.directory);
+
+        // Clearing a flag of an unknown user doesn't add it
+        index.update(uniqueId, "Old", UserIndex.BANNED, false);
+        assertEquals(0, index.size());
+
+        index.update(uniqueId, "Old", UserIndex.BANNED, true);
+        index.update(uniqueId, null, UserIndex.WHITELISTED, true);
+        assertEquals(UserIndex.BANNED | UserIndex.WHITELISTED, index.getFlags(uniqueId));
+        assertEquals(uniqueId, index.getUniqueId("old"));
+
+        index.updateName(uniqueId, "New");
+        assertNull(index.getUniqueId("Old"));
+        assertEquals(uniqueId, index.getUniqueId("NEW"));
+
+        index.update(uniqueId, "New", UserIndex.BANNED, false);
+        assertEquals(UserIndex.WHITELISTED, index.getFlags(uniqueId));
+
+        // The user is dropped once no flag is left
+        index.update(uniqueId, "New", UserIndex.WHITELISTED, false);
+        assertEquals(0, index.size());
+        assertNull(index.getUniqueId("New"));
+    }
+
+    @Test
+    public void testPagesAreOrderedByUniqueId() {
+        UserIndex index = new UserIndex(this.directory);
+        List<UUID> uniqueIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID uniqueId = UUID.randomUUID();
+            uniqueIds.add(uniqueId);
+            index.update(uniqueId, "User" + i, UserIndex.HAS_DATA, true);
+        }
+        Collections.sort(uniqueIds);
+
+        List<UUID> paged = new ArrayList<>();
+        UUID after = null;
+        List<GameProfile> page;
+        while (!(page = index.getPage(after, 4)).isEmpty()) {
+            assertTrue(page.size() <= 4);
+            for (GameProfile profile : page) {
+                paged.add(profile.getId());
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+        assertEquals(uniqueIds, paged);
+    }
+
+    @Test
+    public void testMatchNameIgnoresCase() {
+        UserIndex index = new UserIndex(this.directory);
+        index.update(UUID.randomUUID(), "Notch", UserIndex.HAS_DATA, true);
+        index.update(UUID.randomUUID(), "notchy", UserIndex.HAS_DATA, true);
+        index.update(UUID.randomUUID(), "jeb_", UserIndex.HAS_DATA, true);
+
+        Set<String> names = new HashSet<>();
+        for (GameProfile profile : index.matchName("NOT")) {
+            names.add(profile.getName());
+        }
+        assertEquals(2, names.size());
+        assertTrue(names.contains("Notch"));
+        assertTrue(names.contains("notchy"));
+        assertTrue(index.matchName("steve").isEmpty());
+    }
+
+    @Test
+    public void testCorruptIndexIsRebuilt() throws IOException {
+        File file = new File(this.directory, "users_sponge.dat");
+
+        // Claims more entries than it holds
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file.toPath())))) {
+            out.writeInt(1);
+            out.writeInt(2);
+            out.writeLong(1);
+            out.writeLong(2);
+            out.writeByte(UserIndex.HAS_DATA);
+            out.writeUTF("Partial");
+        }
+        UserIndex index = new UserIndex(this.directory);
+        assertFalse(index.readStored());
+        assertEquals(0, index.size());
+        assertNull(index.getUniqueId("Partial"));
+
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+        assertFalse(new UserIndex(this.directory).readStored());
+
+        // A rebuilt index replaces the corrupt one
+        UUID uniqueId = UUID.randomUUID();
+        index.update(uniqueId, "Rebuilt", UserIndex.HAS_DATA, true);
+        index.save();
+        UserIndex read = new UserIndex(this.directory);
+        assertTrue(read.readStored());
+        assertEquals(uniqueId, read.getUniqueId("rebuilt"));
+    }
+
+}
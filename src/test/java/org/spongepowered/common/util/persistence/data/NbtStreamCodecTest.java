@@ -0,0 +1,150 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.persistence.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import org.junit.Test;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.MemoryDataContainer;
+import org.spongepowered.common.data.persistence.NbtStreamCodec;
+import org.spongepowered.common.data.persistence.NbtTranslator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class NbtStreamCodecTest {
+
+    private static DataContainer createContainer() {
+        DataContainer container = new MemoryDataContainer();
+        container.set(DataQuery.of("string"), "foo");
+        container.set(DataQuery.of("byte"), (byte) 1);
+        container.set(DataQuery.of("short"), (short) 2);
+        container.set(DataQuery.of("int"), 3);
+        container.set(DataQuery.of("long"), 4L);
+        container.set(DataQuery.of("float"), 5.0F);
+        container.set(DataQuery.of("double"), 6.0D);
+        container.set(DataQuery.of("boolean"), true);
+        container.set(DataQuery.of("my.key.to.data"), 7);
+        container.set(DataQuery.of("strings"), ImmutableList.of("a", "b", "c"));
+        container.set(DataQuery.of("empty"), ImmutableList.of());
+        container.set(DataQuery.of("nested", "deeper", "value"), "bar");
+        container.set(DataQuery.of("views"), ImmutableList.of(new MemoryDataContainer().set(DataQuery.of("a"), 1),
+                new MemoryDataContainer().set(DataQuery.of("b"), ImmutableList.of(ImmutableList.of(2L)))));
+        return container;
+    }
+
+    private static byte[] write(DataView view) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NbtStreamCodec.write(view, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testWriteMatchesTranslator() throws IOException {
+        DataContainer container = createContainer();
+        container.set(DataQuery.of("bytes"), new byte[] {1, 2, 3});
+        container.set(DataQuery.of("ints"), new int[] {4, 5, 6});
+        NBTTagCompound compound = CompressedStreamTools.read(new DataInputStream(new ByteArrayInputStream(write(container))));
+        assertEquals(NbtTranslator.getInstance().translateData(container), compound);
+    }
+
+    @Test
+    public void testReadMatchesTranslator() throws IOException {
+        NBTTagCompound compound = NbtTranslator.getInstance().translateData(createContainer());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompressedStreamTools.write(compound, new DataOutputStream(bytes));
+        DataContainer container = NbtStreamCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(NbtTranslator.getInstance().translateFrom(compound), container);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        DataContainer container = createContainer();
+        assertEquals(container, NbtStreamCodec.read(new DataInputStream(new ByteArrayInputStream(write(container)))));
+
+        DataContainer arrays = new MemoryDataContainer()
+                .set(DataQuery.of("bytes"), new byte[] {1, 2, 3})
+                .set(DataQuery.of("ints"), new int[] {4, 5, 6});
+        DataContainer read = NbtStreamCodec.read(new DataInputStream(new ByteArrayInputStream(write(arrays))));
+        assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) read.get(DataQuery.of("bytes")).get());
+        assertArrayEquals(new int[] {4, 5, 6}, (int[]) read.get(DataQuery.of("ints")).get());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRootMustBeCompound() throws IOException {
+        NbtStreamCodec.read(new DataInputStream(new ByteArrayInputStream(new byte[] {8, 0, 0, 0, 0})));
+    }
+
+    /**
+     * Compares the memory allocated to write a schematic sized view with the
+     * translator and the stream codec.
+     */
+    @Test
+    public void testWriteAllocations() throws IOException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+
+        DataContainer container = new MemoryDataContainer();
+        container.set(DataQuery.of("Blocks"), new byte[1 << 20]);
+        container.set(DataQuery.of("Data"), new byte[1 << 20]);
+        for (int i = 0; i < 1000; i++) {
+            container.set(DataQuery.of("TileEntities", "Tile" + i), new MemoryDataContainer()
+                    .set(DataQuery.of("x"), i)
+                    .set(DataQuery.of("id"), "Chest"));
+        }
+        DataOutputStream output = new DataOutputStream(ByteStreams.nullOutputStream());
+
+        long start = allocationBean.getThreadAllocatedBytes(threadId);
+        CompressedStreamTools.write(NbtTranslator.getInstance().translateData(container), output);
+        long translatorBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        start = allocationBean.getThreadAllocatedBytes(threadId);
+        NbtStreamCodec.write(container, output);
+        long codecBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        // The translator copies both arrays, the codec writes them as they are
+        assertTrue("Codec allocated " + codecBytes + " bytes, translator " + translatorBytes + " bytes",
+                codecBytes + (1 << 20) < translatorBytes);
+    }
+
+}
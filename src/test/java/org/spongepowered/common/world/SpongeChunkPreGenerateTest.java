@@ -0,0 +1,126 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.flowpowered.math.vector.Vector3d;
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.nbt.NBTTagCompound;
+import org.junit.Test;
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.api.world.World;
+import org.spongepowered.api.world.storage.WorldProperties;
+import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
+
+public class SpongeChunkPreGenerateTest {
+
+    private static final long FULL_TICK_TIME = 50;
+    // Every clock reading advances the time by this much
+    private static final long CLOCK_STEP = 10;
+    private static final double DIAMETER = 32 * 20;
+
+    private long time = 1000;
+
+    @Test
+    public void testProgressIsResumed() {
+        final NBTTagCompound spongeNbt = new NBTTagCompound();
+        final World world = mockWorld(spongeNbt);
+        final SpongeChunkPreGenerate.ChunkPreGenerator generator = createGenerator(world, 4, 0, false);
+        generator.accept(mock(Task.class));
+        generator.accept(mock(Task.class));
+        final NBTTagCompound progress = getProgress(spongeNbt);
+        assertEquals(1, progress.getKeySet().size());
+        final NBTTagCompound saved = (NBTTagCompound) spongeNbt.copy();
+        generator.accept(mock(Task.class));
+        final NBTTagCompound expected = (NBTTagCompound) spongeNbt.copy();
+
+        // A new generator with the same center and radius continues from the saved progress
+        final SpongeChunkPreGenerate.ChunkPreGenerator resumed = createGenerator(mockWorld(saved), 4, 0, false);
+        resumed.accept(mock(Task.class));
+        assertEquals(getProgress(expected), getProgress(saved));
+    }
+
+    @Test
+    public void testProgressIsRemovedWhenDone() {
+        final NBTTagCompound spongeNbt = new NBTTagCompound();
+        final SpongeChunkPreGenerate.ChunkPreGenerator generator = new SpongeChunkPreGenerate.ChunkPreGenerator(mockWorld(spongeNbt),
+                Vector3d.ZERO, 32, 0, 0, null, FULL_TICK_TIME, () -> true, () -> this.time += 1);
+        final Task task = mock(Task.class);
+        generator.accept(task);
+        verify(task).cancel();
+        assertTrue(getProgress(spongeNbt).hasNoTags());
+    }
+
+    @Test
+    public void testTickPercentLimitsGeneration() {
+        final World world = mockWorld(new NBTTagCompound());
+        // 25ms of each 50ms tick, the position after the third clock step is over the limit
+        createGenerator(world, 0, 0.5f, false).accept(mock(Task.class));
+        verify(world, times(3 * 4)).loadChunk(any(Vector3i.class), eq(true));
+    }
+
+    @Test
+    public void testThroughputModeUsesFullTick() {
+        final World world = mockWorld(new NBTTagCompound());
+        // The chunk count and tick percent are ignored, only the full tick time limits generation
+        createGenerator(world, 1, 0.5f, true).accept(mock(Task.class));
+        verify(world, times(5 * 4)).loadChunk(any(Vector3i.class), eq(true));
+    }
+
+    @Test
+    public void testChunkCountLimitsGeneration() {
+        final World world = mockWorld(new NBTTagCompound());
+        createGenerator(world, 1, 0.5f, false).accept(mock(Task.class));
+        verify(world, times(4)).loadChunk(any(Vector3i.class), eq(true));
+    }
+
+    private SpongeChunkPreGenerate.ChunkPreGenerator createGenerator(World world, int chunkCount, float tickPercent, boolean throughputMode) {
+        return new SpongeChunkPreGenerate.ChunkPreGenerator(world, Vector3d.ZERO, DIAMETER, chunkCount, tickPercent, null,
+                FULL_TICK_TIME, () -> throughputMode, () -> this.time += CLOCK_STEP);
+    }
+
+    private static World mockWorld(NBTTagCompound spongeNbt) {
+        final WorldProperties properties = mock(WorldProperties.class, withSettings().extraInterfaces(IMixinWorldInfo.class));
+        when(((IMixinWorldInfo) properties).getSpongeNbt()).thenReturn(spongeNbt);
+        final World world = mock(World.class);
+        when(world.getProperties()).thenReturn(properties);
+        return world;
+    }
+
+    private static NBTTagCompound getProgress(NBTTagCompound spongeNbt) {
+        return spongeNbt.getCompoundTag(NbtDataUtil.CHUNK_PRE_GENERATE);
+    }
+
+}
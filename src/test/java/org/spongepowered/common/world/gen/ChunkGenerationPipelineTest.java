@@ -0,0 +1,186 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ChunkGenerationPipelineTest {
+
+    private static final long SEED = 8675309L;
+    private static final int RADIUS = 6;
+    private static final long EXPIRY_TICKS = 20;
+
+    @After
+    public void stopWorker() {
+        ChunkGenerationPipeline.onServerStopping();
+    }
+
+    @Test
+    public void testQueuedChunksAreGeneratedByWorker() throws InterruptedException {
+        final HeightSource serialSource = new HeightSource();
+        final HeightSource asyncSource = new HeightSource();
+        final ChunkGenerationPipeline<int[]> pipeline = new ChunkGenerationPipeline<>(asyncSource, (RADIUS * 2 + 1) * (RADIUS * 2 + 1),
+                EXPIRY_TICKS);
+
+        // Queue in a different order than the serial generation to catch state leaking between chunks
+        for (int x = RADIUS; x >= -RADIUS; x--) {
+            for (int z = -RADIUS; z <= RADIUS; z++) {
+                assertTrue(pipeline.queue(x, z));
+            }
+        }
+        awaitGeneration(pipeline);
+        assertFalse(asyncSource.threads.contains(Thread.currentThread()));
+
+        for (int x = -RADIUS; x <= RADIUS; x++) {
+            for (int z = -RADIUS; z <= RADIUS; z++) {
+                final int[] generated = pipeline.take(x, z);
+                assertNotNull(generated);
+                assertArrayEquals(serialSource.generate(x, z), generated);
+            }
+        }
+        assertEquals(0, pipeline.getGeneratedCount());
+    }
+
+    @Test
+    public void testNothingIsGeneratedDuringTick() throws InterruptedException {
+        final HeightSource source = new HeightSource();
+        final ChunkGenerationPipeline<int[]> pipeline = new ChunkGenerationPipeline<>(source, 4, EXPIRY_TICKS);
+
+        ChunkGenerationPipeline.onTickStart();
+        assertTrue(pipeline.queue(0, 0));
+        Thread.sleep(50);
+        assertTrue(source.threads.isEmpty());
+
+        // Chunks that are requested before the worker reached them are generated by the caller
+        assertNull(pipeline.take(0, 0));
+        assertEquals(0, pipeline.getQueuedCount());
+        assertEquals(1, pipeline.getMisses());
+    }
+
+    @Test
+    public void testQueueIsBounded() {
+        final ChunkGenerationPipeline<int[]> pipeline = new ChunkGenerationPipeline<>(new HeightSource(), 2, EXPIRY_TICKS);
+        ChunkGenerationPipeline.onTickStart();
+        assertTrue(pipeline.queue(0, 0));
+        assertTrue(pipeline.queue(0, 1));
+        assertTrue(pipeline.queue(0, 0));
+        assertFalse(pipeline.queue(1, 0));
+    }
+
+    @Test
+    public void testUnusedTerrainExpires() throws InterruptedException {
+        final ChunkGenerationPipeline<int[]> pipeline = new ChunkGenerationPipeline<>(new HeightSource(), 2, EXPIRY_TICKS);
+        ChunkGenerationPipeline.onTickStart();
+        assertTrue(pipeline.queue(0, 0));
+        assertTrue(pipeline.queue(0, 1));
+        awaitGeneration(pipeline);
+        assertEquals(2, pipeline.getGeneratedCount());
+        assertFalse(pipeline.queue(1, 0));
+
+        for (int i = 0; i <= EXPIRY_TICKS; i++) {
+            ChunkGenerationPipeline.onTickEnd();
+            ChunkGenerationPipeline.onTickStart();
+        }
+        assertEquals(0, pipeline.getGeneratedCount());
+        assertTrue(pipeline.queue(1, 0));
+    }
+
+    @Test
+    public void testSavedChunksAreDroppedByWorker() throws InterruptedException {
+        final HeightSource source = new HeightSource();
+        source.saved.add("0,1");
+        final ChunkGenerationPipeline<int[]> pipeline = new ChunkGenerationPipeline<>(source, 4, EXPIRY_TICKS);
+        ChunkGenerationPipeline.onTickStart();
+        assertTrue(pipeline.queue(0, 0));
+        assertTrue(pipeline.queue(0, 1));
+        // Only checked once generation starts, not while queueing
+        assertTrue(source.savedChecks.isEmpty());
+
+        awaitGeneration(pipeline);
+        assertFalse(source.savedChecks.contains(Thread.currentThread()));
+        assertEquals(1, pipeline.getGeneratedCount());
+        assertNotNull(pipeline.take(0, 0));
+        assertNull(pipeline.take(0, 1));
+    }
+
+    private static void awaitGeneration(ChunkGenerationPipeline<int[]> pipeline) throws InterruptedException {
+        ChunkGenerationPipeline.onTickEnd();
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (pipeline.getQueuedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        ChunkGenerationPipeline.onTickStart();
+        assertEquals(0, pipeline.getQueuedCount());
+    }
+
+    private static final class HeightSource implements ChunkGenerationPipeline.Source<int[]> {
+
+        final ThreadLocal<Random> random = ThreadLocal.withInitial(Random::new);
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final Set<Thread> savedChecks = ConcurrentHashMap.newKeySet();
+        final Set<String> saved = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public int[] generate(int chunkX, int chunkZ) {
+            this.threads.add(Thread.currentThread());
+            final Random rand = this.random.get();
+            rand.setSeed((long) chunkX * 341873128712L + (long) chunkZ * 132897987541L ^ SEED);
+            final int[] heights = new int[256];
+            for (int i = 0; i < heights.length; i++) {
+                heights[i] = 64 + rand.nextInt(32);
+            }
+            return heights;
+        }
+
+        @Override
+        public boolean needsGeneration(int chunkX, int chunkZ) {
+            return true;
+        }
+
+        @Override
+        public boolean isSaved(int chunkX, int chunkZ) {
+            this.savedChecks.add(Thread.currentThread());
+            return this.saved.contains(chunkX + "," + chunkZ);
+        }
+
+        @Override
+        public void scheduleLookAhead(ChunkGenerationPipeline<int[]> pipeline) {
+        }
+
+    }
+
+}